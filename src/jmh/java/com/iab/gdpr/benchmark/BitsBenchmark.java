@@ -0,0 +1,60 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.Bits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Raw field extraction and writing on {@link Bits}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BitsBenchmark {
+
+    private Bits bits;
+
+    @Setup
+    public void setUp() {
+        final byte[] bytes = new byte[64];
+        new Random(42).nextBytes(bytes);
+        bits = new Bits(bytes);
+    }
+
+    @Benchmark
+    public int getIntVendorId() {
+        return bits.getInt(RANGE_ENTRY_OFFSET + 1, VENDOR_ID_SIZE);
+    }
+
+    @Benchmark
+    public long getLongCreated() {
+        return bits.getLong(CREATED_BIT_OFFSET, CREATED_BIT_SIZE);
+    }
+
+    @Benchmark
+    public boolean getBit() {
+        return bits.getBit(PURPOSES_OFFSET + 3);
+    }
+
+    @Benchmark
+    public Bits setLongCreated() {
+        bits.setLong(CREATED_BIT_OFFSET, CREATED_BIT_SIZE, 15280704000L);
+        return bits;
+    }
+}
@@ -0,0 +1,140 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentEncoder;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.RangeEntry;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+
+/**
+ * Deterministic generator of consent strings for benchmarks. The same parameters and seed always produce the same
+ * corpus, so results of different runs can be compared.
+ */
+public class ConsentCorpus {
+
+    public enum Encoding {
+        BITFIELD,
+        RANGE
+    }
+
+    private static final Instant CREATED = Instant.ofEpochSecond(1528070400);
+
+    private final Random random;
+    private final Encoding encoding;
+    private final int maxVendorId;
+    private final int rangeEntries;
+    private final boolean defaultConsent;
+
+    /**
+     * @param seed random seed
+     * @param encoding vendor encoding of generated consents
+     * @param maxVendorId max vendor ID of generated consents
+     * @param rangeEntries number of range entries of range encoded consents, capped at a third of max vendor ID
+     * @param defaultConsent default consent of range encoded consents
+     */
+    public ConsentCorpus(long seed, Encoding encoding, int maxVendorId, int rangeEntries, boolean defaultConsent) {
+        this.random = new Random(seed);
+        this.encoding = encoding;
+        this.maxVendorId = maxVendorId;
+        this.rangeEntries = Math.max(1, Math.min(rangeEntries, maxVendorId / 3));
+        this.defaultConsent = defaultConsent;
+    }
+
+    public int getMaxVendorId() {
+        return maxVendorId;
+    }
+
+    /**
+     * @param count number of consents to generate
+     * @return generated consents
+     */
+    public VendorConsent[] consents(int count) {
+        final VendorConsent[] consents = new VendorConsent[count];
+        for (int i = 0; i < count; i++) {
+            consents[i] = next();
+        }
+        return consents;
+    }
+
+    /**
+     * @param count number of consent strings to generate
+     * @return generated websafe Base64 consent strings
+     */
+    public String[] consentStrings(int count) {
+        return Arrays.stream(consents(count)).map(VendorConsentEncoder::toBase64String).toArray(String[]::new);
+    }
+
+    /**
+     * @param count number of vendor IDs to generate
+     * @return vendor IDs between 1 and max vendor ID
+     */
+    public int[] vendorIds(int count) {
+        final int[] vendorIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            vendorIds[i] = 1 + random.nextInt(maxVendorId);
+        }
+        return vendorIds;
+    }
+
+    /**
+     * @return builder with random header fields and vendors, ready to build
+     */
+    public VendorConsentBuilder nextBuilder() {
+        final Set<Integer> allowedPurposes = new HashSet<>();
+        for (int purposeId = 1; purposeId <= 5; purposeId++) {
+            if (random.nextBoolean()) allowedPurposes.add(purposeId);
+        }
+        final VendorConsentBuilder builder = new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(CREATED.plusSeconds(random.nextInt(1_000_000)))
+                .withConsentRecordLastUpdatedOn(CREATED.plusSeconds(1_000_000 + random.nextInt(1_000_000)))
+                .withCmpID(1 + random.nextInt(300))
+                .withCmpVersion(1 + random.nextInt(10))
+                .withConsentScreenID(random.nextInt(10))
+                .withConsentLanguage("EN")
+                .withVendorListVersion(1 + random.nextInt(200))
+                .withAllowedPurposeIds(allowedPurposes)
+                .withMaxVendorId(maxVendorId);
+
+        if (encoding == Encoding.RANGE) {
+            return builder.withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                    .withDefaultConsent(defaultConsent)
+                    .withRangeEntries(rangeEntries());
+        }
+        final Set<Integer> allowedVendors = new HashSet<>();
+        for (int vendorId = 1; vendorId <= maxVendorId; vendorId++) {
+            if (random.nextBoolean()) allowedVendors.add(vendorId);
+        }
+        return builder.withBitField(allowedVendors);
+    }
+
+    private VendorConsent next() {
+        return nextBuilder().build();
+    }
+
+    /**
+     * Split vendor IDs into equal slots and put a single or start/end entry into each, so entries are sorted
+     * and disjoint
+     */
+    private List<RangeEntry> rangeEntries() {
+        final List<RangeEntry> entries = new ArrayList<>(rangeEntries);
+        final int slot = maxVendorId / rangeEntries;
+        for (int i = 0; i < rangeEntries; i++) {
+            final int slotStart = 1 + i * slot;
+            final int start = slotStart + random.nextInt(slot - 1);
+            final int end = start + random.nextInt(slotStart + slot - start);
+            entries.add(start == end ? new SingleRangeEntry(start) : new StartEndRangeEntry(start, end));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,69 @@
+package com.iab.gdpr.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark state holding a deterministic corpus of consent strings and vendor IDs to query
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+    private static final int CORPUS_SIZE = 64;
+    private static final int VENDOR_IDS_SIZE = 64;
+
+    /**
+     * Distinct corpora. Range entries and default consent only apply to range encoding, so they are part of the
+     * shape instead of separate parameters, which would repeat every bit field run over identical data.
+     */
+    public enum Shape {
+        BITFIELD(ConsentCorpus.Encoding.BITFIELD, 0, false),
+        RANGE_10(ConsentCorpus.Encoding.RANGE, 10, false),
+        RANGE_10_DEFAULT_CONSENT(ConsentCorpus.Encoding.RANGE, 10, true),
+        RANGE_300(ConsentCorpus.Encoding.RANGE, 300, false),
+        RANGE_300_DEFAULT_CONSENT(ConsentCorpus.Encoding.RANGE, 300, true);
+
+        final ConsentCorpus.Encoding encoding;
+        final int rangeEntries;
+        final boolean defaultConsent;
+
+        Shape(ConsentCorpus.Encoding encoding, int rangeEntries, boolean defaultConsent) {
+            this.encoding = encoding;
+            this.rangeEntries = rangeEntries;
+            this.defaultConsent = defaultConsent;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    @Param({ "100", "1000", "65535" })
+    public int maxVendorId;
+
+    public ConsentCorpus corpus;
+    public String[] consentStrings;
+    public int[] vendorIds;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        corpus = new ConsentCorpus(42, shape.encoding, maxVendorId, shape.rangeEntries, shape.defaultConsent);
+        consentStrings = corpus.consentStrings(CORPUS_SIZE);
+        vendorIds = corpus.vendorIds(VENDOR_IDS_SIZE);
+    }
+
+    /**
+     * @return index of the next corpus entry, cycling through the corpus
+     */
+    public int nextIndex() {
+        next = (next + 1) & (CORPUS_SIZE - 1);
+        return next;
+    }
+
+    public String nextConsentString() {
+        return consentStrings[nextIndex()];
+    }
+}
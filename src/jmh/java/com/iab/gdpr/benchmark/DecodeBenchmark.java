@@ -0,0 +1,84 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.consent.ConsentHeader;
+import com.iab.gdpr.consent.DecodingStrategy;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import com.iab.gdpr.consent.implementation.v1.ReusableVendorConsent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding consent strings into {@link VendorConsent}, followed by a single vendor check so lazy implementations
+ * do comparable work
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodeBenchmark {
+
+    private final ReusableVendorConsent reusableConsent = new ReusableVendorConsent();
+    private final ConsentHeader consentHeader = new ConsentHeader();
+
+    @Benchmark
+    public boolean fromBase64StringLazy(CorpusState state) {
+        return decode(state, DecodingStrategy.LAZY);
+    }
+
+    @Benchmark
+    public boolean fromBase64StringRangeIndexed(CorpusState state) {
+        return decode(state, DecodingStrategy.RANGE_INDEXED);
+    }
+
+    @Benchmark
+    public boolean fromBase64StringEager(CorpusState state) {
+        return decode(state, DecodingStrategy.EAGER);
+    }
+
+    @Benchmark
+    public boolean fromBase64Chars(CorpusState state) {
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64Chars(state.nextConsentString());
+        return vendorConsent.isVendorAllowed(state.vendorIds[0]);
+    }
+
+    @Benchmark
+    public boolean reusableReset(CorpusState state) {
+        final VendorConsent vendorConsent = reusableConsent.reset(state.nextConsentString());
+        return vendorConsent.isVendorAllowed(state.vendorIds[0]);
+    }
+
+    /**
+     * Routing decision from header fields only, with the full decode
+     */
+    @Benchmark
+    public int fromBase64StringHeaderFields(CorpusState state) {
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64String(state.nextConsentString());
+        return vendorConsent.getCmpId() ^ vendorConsent.getVendorListVersion() ^ vendorConsent.getAllowedPurposesBits();
+    }
+
+    /**
+     * Routing decision from header fields only, decoding just the header
+     */
+    @Benchmark
+    public int consentHeader(CorpusState state) {
+        consentHeader.decode(state.nextConsentString());
+        return consentHeader.getCmpId() ^ consentHeader.getVendorListVersion() ^ consentHeader.getAllowedPurposesBits();
+    }
+
+    private static boolean decode(CorpusState state, DecodingStrategy strategy) {
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64String(state.nextConsentString(), strategy);
+        return vendorConsent.isVendorAllowed(state.vendorIds[0]);
+    }
+}
@@ -0,0 +1,54 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentEncoder;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and encoding {@link VendorConsent}s
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodeBenchmark {
+
+    private VendorConsentBuilder[] builders;
+    private VendorConsent[] consents;
+
+    @Setup(Level.Trial)
+    public void setUp(CorpusState state) {
+        final int size = state.consentStrings.length;
+        builders = new VendorConsentBuilder[size];
+        consents = new VendorConsent[size];
+        for (int i = 0; i < size; i++) {
+            builders[i] = state.corpus.nextBuilder();
+            consents[i] = builders[i].build();
+        }
+    }
+
+    @Benchmark
+    public VendorConsent build(CorpusState state) {
+        return builders[state.nextIndex()].build();
+    }
+
+    @Benchmark
+    public String toBase64String(CorpusState state) {
+        return VendorConsentEncoder.toBase64String(consents[state.nextIndex()]);
+    }
+}
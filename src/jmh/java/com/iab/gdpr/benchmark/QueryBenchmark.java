@@ -0,0 +1,104 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.consent.DecodingStrategy;
+import com.iab.gdpr.consent.IdBitmap;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Queries against already decoded {@link VendorConsent}s
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QueryBenchmark {
+
+    @Param({ "LAZY", "RANGE_INDEXED", "EAGER" })
+    public DecodingStrategy strategy;
+
+    private VendorConsent[] consents;
+    private boolean[] results;
+    private Set<Integer> partnerIds;
+    private IdBitmap partners;
+
+    @Setup(Level.Trial)
+    public void setUp(CorpusState state) {
+        consents = Arrays.stream(state.consentStrings)
+                .map(consentString -> VendorConsentDecoder.fromBase64String(consentString, strategy))
+                .toArray(VendorConsent[]::new);
+        results = new boolean[state.vendorIds.length];
+        partnerIds = Arrays.stream(state.vendorIds).boxed().collect(Collectors.toSet());
+        partners = IdBitmap.of(state.maxVendorId, state.vendorIds);
+    }
+
+    /**
+     * Check every vendor of the corpus vendor IDs, as done when filtering bidders
+     */
+    @Benchmark
+    public void isVendorAllowed(CorpusState state, Blackhole blackhole) {
+        final VendorConsent vendorConsent = consents[state.nextIndex()];
+        for (int vendorId : state.vendorIds) {
+            blackhole.consume(vendorConsent.isVendorAllowed(vendorId));
+        }
+    }
+
+    /**
+     * Same vendor IDs as {@link #isVendorAllowed} checked with a single batch call
+     */
+    @Benchmark
+    public boolean[] isVendorsAllowed(CorpusState state) {
+        consents[state.nextIndex()].isVendorsAllowed(state.vendorIds, results);
+        return results;
+    }
+
+    @Benchmark
+    public Set<Integer> getAllowedVendorIds(CorpusState state) {
+        return consents[state.nextIndex()].getAllowedVendorIds();
+    }
+
+    @Benchmark
+    public IdBitmap getAllowedVendorBitmap(CorpusState state) {
+        return consents[state.nextIndex()].getAllowedVendorBitmap();
+    }
+
+    /**
+     * Baseline: allowed partners by intersecting boxed sets
+     */
+    @Benchmark
+    public int intersectPartnerSet(CorpusState state) {
+        final Set<Integer> allowed = consents[state.nextIndex()].getAllowedVendorIds();
+        allowed.retainAll(partnerIds);
+        return allowed.size();
+    }
+
+    @Benchmark
+    public int intersectPartnerBitmap(CorpusState state) {
+        return consents[state.nextIndex()].getAllowedVendorBitmap().andCardinality(partners);
+    }
+
+    @Benchmark
+    public int getAllowedPurposesBits(CorpusState state) {
+        return consents[state.nextIndex()].getAllowedPurposesBits();
+    }
+}
@@ -0,0 +1,79 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.consent.ConsentStatus;
+import com.iab.gdpr.consent.DecodingStrategy;
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import com.iab.gdpr.consent.implementation.v1.ReusableVendorConsent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejecting junk consent strings: truncated ones, ones with characters outside of the websafe Base64 alphabet and
+ * ones with an unsupported version, cycling through all three. Decoding and checking a vendor with exceptions is
+ * compared with the exception-free paths.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RejectBenchmark {
+
+    private final ReusableVendorConsent reusableConsent = new ReusableVendorConsent();
+    private String[] junk;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(CorpusState state) {
+        junk = new String[state.consentStrings.length];
+        for (int i = 0; i < junk.length; i++) {
+            final String consentString = state.consentStrings[i];
+            switch (i % 3) {
+                case 0:
+                    junk[i] = consentString.substring(0, consentString.length() / 2 & ~3);
+                    break;
+                case 1:
+                    junk[i] = consentString.replace('A', '+');
+                    break;
+                default:
+                    junk[i] = "K" + consentString.substring(1);
+            }
+        }
+    }
+
+    private String nextJunk() {
+        next = (next + 1) % junk.length;
+        return junk[next];
+    }
+
+    @Benchmark
+    public boolean fromBase64StringCatch(CorpusState state) {
+        try {
+            return VendorConsentDecoder.fromBase64String(nextJunk()).isVendorAllowed(state.vendorIds[0]);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean tryFromBase64String() {
+        return VendorConsentDecoder.tryFromBase64String(nextJunk(), DecodingStrategy.LAZY).isValid();
+    }
+
+    @Benchmark
+    public boolean reusableTryReset() {
+        return reusableConsent.tryReset(nextJunk()) == ConsentStatus.VALID;
+    }
+}
@@ -0,0 +1,76 @@
+package com.iab.gdpr.benchmark;
+
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import com.iab.gdpr.consent.VendorConsentStreamDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding an in memory log of newline delimited consent strings, reported per consent string
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamDecodeBenchmark {
+    // Corpus of 64 consent strings repeated into a log of 1024 lines
+    private static final int LINES = 1024;
+
+    private final VendorConsentStreamDecoder streamDecoder = new VendorConsentStreamDecoder();
+    private byte[] log;
+
+    @Setup(Level.Trial)
+    public void setUp(CorpusState state) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < LINES; i++) {
+            final byte[] line = state.consentStrings[i % state.consentStrings.length].getBytes(StandardCharsets.US_ASCII);
+            out.write(line, 0, line.length);
+            out.write('\n');
+        }
+        log = out.toByteArray();
+    }
+
+    /**
+     * Baseline: read a String per line and decode it
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void readLineFromBase64String(CorpusState state, Blackhole blackhole) throws IOException {
+        final int vendorId = state.vendorIds[0];
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(log), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(VendorConsentDecoder.fromBase64String(line).isVendorAllowed(vendorId));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long streamDecode(CorpusState state, Blackhole blackhole) throws IOException {
+        final int vendorId = state.vendorIds[0];
+        return streamDecoder.decode(new ByteArrayInputStream(log),
+                (lineNumber, vendorConsent) -> blackhole.consume(vendorConsent.isVendorAllowed(vendorId)));
+    }
+}
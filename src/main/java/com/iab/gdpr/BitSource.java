@@ -0,0 +1,108 @@
+package com.iab.gdpr;
+
+import java.time.Instant;
+
+import com.iab.gdpr.exception.VendorConsentException;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+/**
+ * Read only bit string. Implemented by {@link Bits}, and by views that read bits straight from another
+ * representation such as websafe Base64 characters, so code that only reads consent fields does not need a mutable
+ * byte array.
+ */
+public interface BitSource {
+
+    /**
+     *
+     * @return the number of bytes in the bit string
+     */
+    int length();
+
+    /**
+     *
+     * @param index:
+     *            the nth number bit to get from the bit string
+     * @return boolean bit, true if the bit is switched to 1, false otherwise
+     * @throws VendorConsentException
+     *             when the bit lies outside of the bit string
+     */
+    boolean getBit(int index) throws VendorConsentException;
+
+    /**
+     * interprets n bits as a big endian long
+     *
+     * @param startInclusive:
+     *            the nth to begin interpreting from
+     * @param size:the
+     *            number of bits to interpret
+     * @return the long value create by interpretation of provided bits
+     * @throws VendorConsentException
+     *             when the bits cannot fit in a long sized field or lie outside of the bit string
+     */
+    long getLong(int startInclusive, int size) throws VendorConsentException;
+
+    /**
+     * interprets n number of bits as a big endiant int
+     *
+     * @param startInclusive:
+     *            the nth to begin interpreting from
+     * @param size:
+     *            the number of bits to interpret
+     * @return integer value
+     * @throws VendorConsentException
+     *             when the bits cannot fit in an int sized field
+     */
+    default int getInt(int startInclusive, int size) throws VendorConsentException {
+        if (size > Integer.SIZE) {
+            throw new VendorConsentParseException("can't fit bit range in int " + size);
+        }
+        return (int) getLong(startInclusive, size);
+    }
+
+    /**
+     * returns an {@link Instant} derived from interpreting the given interval on the bit string as long representing
+     * the number of demiseconds from the unix epoch
+     *
+     * @param startInclusive:
+     *            the bit from which to begin interpreting
+     * @param size:
+     *            the number of bits to interpret
+     * @return instant value
+     * @throws VendorConsentException
+     *             when the number of bits requested cannot fit in a long
+     */
+    default Instant getInstantFromEpochDeciseconds(int startInclusive, int size) throws VendorConsentException {
+        long epochDemi = getLong(startInclusive, size);
+        return Instant.ofEpochMilli(epochDemi * 100);
+    }
+
+    /**
+     * This method interprets the given interval in the bit string as a series of six bit characters, where 0=A and 26=Z
+     *
+     * @param startInclusive:
+     *            the nth bit in the bitstring from which to start the interpretation
+     * @param size:
+     *            the number of bits to include in the string
+     * @return the string given by the above interpretation
+     * @throws VendorConsentException
+     *             when the requested interval is not a multiple of six
+     */
+    default String getSixBitString(int startInclusive, int size) throws VendorConsentException {
+        if (size % 6 != 0) {
+            throw new VendorConsentParseException("string bit length must be multiple of six: " + size);
+        }
+        int charNum = size / 6;
+        StringBuilder val = new StringBuilder();
+        for (int i = 0; i < charNum; i++) {
+            int charCode = getInt(startInclusive + (i * 6), 6) + 65;
+            val.append((char) charCode);
+        }
+        return val.toString().toUpperCase();
+    }
+
+    /**
+     *
+     * @return the bytes of the bit string, which may be backing storage of the bit string and must not be modified
+     */
+    byte[] toByteArray();
+}
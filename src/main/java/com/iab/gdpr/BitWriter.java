@@ -0,0 +1,146 @@
+package com.iab.gdpr;
+
+import java.time.Instant;
+
+import com.iab.gdpr.exception.VendorConsentException;
+
+/**
+ * Sequential writer over {@link Bits}. Keeps a cursor into the bit string and appends fields one after another,
+ * so callers don't need to track offsets themselves. Each field is written with masked byte writes rather than
+ * bit by bit.
+ */
+public class BitWriter {
+    private final Bits bits;
+    private int position;
+
+    /**
+     * @param bits:
+     *            bit string to write to
+     */
+    public BitWriter(Bits bits) {
+        this(bits, 0);
+    }
+
+    /**
+     * @param bits:
+     *            bit string to write to
+     * @param position:
+     *            the nth bit at which the first field is written
+     */
+    public BitWriter(Bits bits, int position) {
+        this.bits = bits;
+        this.position = position;
+    }
+
+    /**
+     *
+     * @return the nth bit at which the next field will be written
+     */
+    public int position() {
+        return position;
+    }
+
+    /**
+     * Moves the cursor, for example past a field written directly to the bits
+     *
+     * @param newPosition:
+     *            the nth bit at which the next field will be written
+     * @return this writer
+     */
+    public BitWriter position(int newPosition) {
+        this.position = newPosition;
+        return this;
+    }
+
+    /**
+     *
+     * @return the bit string this writer writes to
+     */
+    public Bits bits() {
+        return bits;
+    }
+
+    /**
+     * Appends a single bit
+     *
+     * @param value:
+     *            true to write 1, false to write 0
+     * @return this writer
+     */
+    public BitWriter writeBit(boolean value) {
+        if (value)
+            bits.setBit(position);
+        else
+            bits.unsetBit(position);
+        position++;
+        return this;
+    }
+
+    /**
+     * Appends an integer as a big endian field of given size
+     *
+     * @param size:
+     *            the number of bits available to write
+     * @param value:
+     *            the integer to write out
+     * @return this writer
+     * @throws VendorConsentException
+     *             when the value cannot fit into the provided size
+     */
+    public BitWriter writeInt(int size, int value) throws VendorConsentException {
+        bits.setInt(position, size, value);
+        position += size;
+        return this;
+    }
+
+    /**
+     * Appends a long as a big endian field of given size
+     *
+     * @param size:
+     *            the number of bits available to write
+     * @param value:
+     *            the long to write out
+     * @return this writer
+     * @throws VendorConsentException
+     *             when the value cannot fit into the provided size
+     */
+    public BitWriter writeLong(int size, long value) throws VendorConsentException {
+        bits.setLong(position, size, value);
+        position += size;
+        return this;
+    }
+
+    /**
+     * Appends an {@link Instant} as the number of deciseconds from the unix epoch
+     *
+     * @param size:
+     *            the number of bits available to write
+     * @param instant:
+     *            the instant to write out
+     * @return this writer
+     * @throws VendorConsentException
+     *             when the value cannot fit into the provided size
+     */
+    public BitWriter writeInstantAsEpochDeciseconds(int size, Instant instant) throws VendorConsentException {
+        bits.setInstantToEpochDeciseconds(position, size, instant);
+        position += size;
+        return this;
+    }
+
+    /**
+     * Appends a string as a series of six bit characters, where 0=A and 26=Z
+     *
+     * @param size:
+     *            the number of bits available to write, must be 6 times the length of the string
+     * @param value:
+     *            the string to write out
+     * @return this writer
+     * @throws VendorConsentException
+     *             when the string does not fit the provided size
+     */
+    public BitWriter writeSixBitString(int size, String value) throws VendorConsentException {
+        bits.setSixBitString(position, size, value);
+        position += size;
+        return this;
+    }
+}
@@ -1,6 +1,7 @@
 package com.iab.gdpr;
 
 import java.time.Instant;
+import java.util.Arrays;
 
 import com.iab.gdpr.exception.VendorConsentCreateException;
 import com.iab.gdpr.exception.VendorConsentException;
@@ -10,13 +11,53 @@ import com.iab.gdpr.exception.VendorConsentParseException;
  * since java.util.BitSet is inappropiate to use here--as it reversed the bit order of the consent string
  * implement bitwise operations here
  */
-public class Bits {
-    // big endian
-    private static final byte[] bytePows = { -128, 64, 32, 16, 8, 4, 2, 1 };
+public class Bits implements BitSource {
+    // largest value that fits in n bits, indexed by n. For 64 bits this is Long.MAX_VALUE, as negative values are
+    // rejected separately
+    private static final long[] MAX_OF_SIZE = new long[Long.SIZE + 1];
+
+    static {
+        for (int i = 1; i < Long.SIZE; i++) {
+            MAX_OF_SIZE[i] = -1L >>> (Long.SIZE - i);
+        }
+        MAX_OF_SIZE[Long.SIZE] = Long.MAX_VALUE;
+    }
+
     private final byte[] bytes;
+    // number of bytes of the backing array that belong to the bit string
+    private int limit;
 
     public Bits(byte[] b) {
         this.bytes = b;
+        this.limit = b.length;
+    }
+
+    /**
+     *
+     * @return the number of bytes in the bit string
+     */
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public int length() {
+        return limit;
+    }
+
+    /**
+     * Sets the number of bytes of the backing array that belong to the bit string, so the same array can be reused
+     * for bit strings of different lengths. Bits past the limit cannot be read.
+     *
+     * @param newLimit:
+     *            the new number of bytes in the bit string
+     * @return this bit string
+     */
+    public Bits limit(int newLimit) {
+        if (newLimit < 0 || newLimit > bytes.length)
+            throw new IllegalArgumentException("Limit must be between 0 and " + bytes.length + ": " + newLimit);
+        this.limit = newLimit;
+        return this;
     }
 
     /**
@@ -25,13 +66,12 @@ public class Bits {
      *            the nth number bit to get from the bit string
      * @return boolean bit, true if the bit is switched to 1, false otherwise
      */
+    @Override
     public boolean getBit(int index) {
-        int byteIndex = index / 8;
-        if (byteIndex > bytes.length - 1)
-            throw new VendorConsentParseException("Expected consent string to contain at least " + (byteIndex + 1) + " bytes, but found only " + bytes.length + " bytes");
-        int bitExact = index % 8;
-        byte b = bytes[byteIndex];
-        return (b & bytePows[bitExact]) != 0;
+        int byteIndex = index >>> 3;
+        if (byteIndex > limit - 1)
+            throw new VendorConsentParseException("Expected consent string to contain at least " + (byteIndex + 1) + " bytes, but found only " + limit + " bytes");
+        return (bytes[byteIndex] & (0x80 >>> (index & 7))) != 0;
     }
 
     /**
@@ -56,34 +96,6 @@ public class Bits {
         bytes[byteIndex] &= ~(1 << shift);
     }
 
-    /**
-     * interprets n number of bits as a big endiant int
-     *
-     * @param startInclusive:
-     *            the nth to begin interpreting from
-     * @param size:
-     *            the number of bits to interpret
-     * @return integer value
-     * @throws VendorConsentException
-     *             when the bits cannot fit in an int sized field
-     */
-    public int getInt(int startInclusive, int size) throws VendorConsentException {
-        if (size > Integer.SIZE) {
-            throw new VendorConsentParseException("can't fit bit range in int " + size);
-        }
-        int val = 0;
-        int sigMask = 1;
-        int sigIndex = size - 1;
-
-        for (int i = 0; i < size; i++) {
-            if (getBit(startInclusive + i)) {
-                val += (sigMask << sigIndex);
-            }
-            sigIndex--;
-        }
-        return val;
-    }
-
     /**
      * Writes an integer value into a bit array of given size
      *
@@ -97,7 +109,7 @@ public class Bits {
      *             when the bits cannot fit into the provided size
      */
     public void setInt(int startInclusive, int size, int to) throws VendorConsentException {
-        if (size > Integer.SIZE || to > maxOfSize(size) || to < 0) {
+        if (size < 0 || size > Integer.SIZE || to > maxOfSize(size) || to < 0) {
             throw new VendorConsentCreateException("can't fit integer into bit range of size" + size);
         }
 
@@ -105,7 +117,8 @@ public class Bits {
     }
 
     /**
-     * interprets n bits as a big endian long
+     * interprets n bits as a big endian long. The bytes covering the interval are loaded into a single word
+     * and the value is extracted with one shift and mask, after a single bounds check for the whole interval.
      *
      * @param startInclusive:
      *            the nth to begin interpreting from
@@ -113,23 +126,37 @@ public class Bits {
      *            number of bits to interpret
      * @return the long value create by interpretation of provided bits
      * @throws VendorConsentException
-     *             when the bits cannot fit in an int sized field
+     *             when the bits cannot fit in a long sized field or lie outside of the bit string
      */
-    private long getLong(int startInclusive, int size) throws VendorConsentException {
+    @Override
+    public long getLong(int startInclusive, int size) throws VendorConsentException {
         if (size > Long.SIZE) {
             throw new VendorConsentParseException("can't fit bit range in long: " + size);
         }
-        long val = 0;
-        long sigMask = 1;
-        int sigIndex = size - 1;
-
-        for (int i = 0; i < size; i++) {
-            if (getBit(startInclusive + i)) {
-                val += (sigMask << sigIndex);
-            }
-            sigIndex--;
+        if (size <= 0) {
+            return 0;
+        }
+        final int lastByteIndex = (startInclusive + size - 1) >>> 3;
+        if (lastByteIndex > limit - 1)
+            throw new VendorConsentParseException("Expected consent string to contain at least " + (lastByteIndex + 1) + " bytes, but found only " + limit + " bytes");
+
+        // Load the bytes covering the interval (at most 8) into a single big endian word
+        int byteIndex = startInclusive >>> 3;
+        final int bitOffset = startInclusive & 7;
+        final int coveredBits = bitOffset + size;
+        final int wordBytes = Math.min((coveredBits + 7) >>> 3, Long.BYTES);
+        long word = 0;
+        for (int i = 0; i < wordBytes; i++) {
+            word = (word << 8) | (bytes[byteIndex++] & 0xFF);
+        }
+
+        if (coveredBits <= Long.SIZE) {
+            // Drop the trailing bits past the interval, then the leading bits before it
+            return (word >>> ((wordBytes << 3) - coveredBits)) & (-1L >>> (Long.SIZE - size));
         }
-        return val;
+        // Unaligned field wider than 56 bits spills into a ninth byte
+        final int spill = coveredBits - Long.SIZE;
+        return ((word << bitOffset) >>> (Long.SIZE - size)) | ((bytes[byteIndex] & 0xFF) >>> (8 - spill));
     }
 
     /**
@@ -144,60 +171,19 @@ public class Bits {
      * @throws VendorConsentException
      *             when the bits cannot fit into the provided size
      */
-    private void setLong(int startInclusive, int size, long to) throws VendorConsentException {
-        if (size > Long.SIZE || to > maxOfSize(size) || to < 0) {
+    public void setLong(int startInclusive, int size, long to) throws VendorConsentException {
+        if (size < 0 || size > Long.SIZE || to > maxOfSize(size) || to < 0) {
             throw new VendorConsentCreateException("can't fit long into bit range of size " + size);
         }
 
         setNumber(startInclusive, size, to);
     }
 
-    /**
-     * returns an {@link Instant} derived from interpreting the given interval on the bit string as long representing
-     * the number of demiseconds from the unix epoch
-     *
-     * @param startInclusive:
-     *            the bit from which to begin interpreting
-     * @param size:
-     *            the number of bits to interpret
-     * @return instant value
-     * @throws VendorConsentException
-     *             when the number of bits requested cannot fit in a long
-     */
-    public Instant getInstantFromEpochDeciseconds(int startInclusive, int size) throws VendorConsentException {
-        long epochDemi = getLong(startInclusive, size);
-        return Instant.ofEpochMilli(epochDemi * 100);
-    }
-
     public void setInstantToEpochDeciseconds(int startInclusive, int size, Instant instant)
             throws VendorConsentException {
         setLong(startInclusive, size, instant.toEpochMilli() / 100);
     }
 
-    /**
-     * This method interprets the given interval in the bit string as a series of six bit characters, where 0=A and 26=Z
-     *
-     * @param startInclusive:
-     *            the nth bit in the bitstring from which to start the interpretation
-     * @param size:
-     *            the number of bits to include in the string
-     * @return the string given by the above interpretation
-     * @throws VendorConsentException
-     *             when the requested interval is not a multiple of six
-     */
-    public String getSixBitString(int startInclusive, int size) throws VendorConsentException {
-        if (size % 6 != 0) {
-            throw new VendorConsentParseException("string bit length must be multiple of six: " + size);
-        }
-        int charNum = size / 6;
-        StringBuilder val = new StringBuilder();
-        for (int i = 0; i < charNum; i++) {
-            int charCode = getInt(startInclusive + (i * 6), 6) + 65;
-            val.append((char) charCode);
-        }
-        return val.toString().toUpperCase();
-    }
-
     /**
      * This method interprets characters, as 0=A and 26=Z and writes to the given interval in the bit string as a series
      * of six bits
@@ -223,25 +209,43 @@ public class Bits {
         }
     }
 
+    /**
+     *
+     * @return the backing array when the bit string spans all of it, a copy of the bit string bytes otherwise
+     */
+    @Override
     public byte[] toByteArray() {
-        return bytes;
+        return limit == bytes.length ? bytes : Arrays.copyOf(bytes, limit);
     }
 
+    /**
+     *
+     * @return a new array holding the bytes of the bit string
+     */
+    public byte[] copyBytes() {
+        return Arrays.copyOf(bytes, limit);
+    }
+
+    /**
+     * Writes the lowest size bits of the value into the given interval, overwriting whatever was there. Each
+     * covered byte is updated with a single masked write.
+     */
     private void setNumber(int startInclusive, int size, long to) {
-        for (int i = size - 1; i >= 0; i--) {
-            int index = startInclusive + i;
-            int byteIndex = index / 8;
-            int shift = (byteIndex + 1) * 8 - index - 1;
-            bytes[byteIndex] |= (to % 2) << shift;
-            to /= 2;
+        int endExclusive = startInclusive + size;
+        int remaining = size;
+        while (remaining > 0) {
+            final int byteIndex = (endExclusive - 1) >>> 3;
+            final int trailingBits = (8 - (endExclusive & 7)) & 7;
+            final int written = Math.min(remaining, 8 - trailingBits);
+            final int mask = ((1 << written) - 1) << trailingBits;
+            bytes[byteIndex] = (byte) ((bytes[byteIndex] & ~mask) | (((int) to << trailingBits) & mask));
+            to >>>= written;
+            remaining -= written;
+            endExclusive -= written;
         }
     }
 
-    private long maxOfSize(int size) {
-        long max = 0;
-        for (int i = 0; i < size; i++) {
-            max += Math.pow(2, i);
-        }
-        return max;
+    private static long maxOfSize(int size) {
+        return MAX_OF_SIZE[size];
     }
 }
@@ -0,0 +1,169 @@
+package com.iab.gdpr;
+
+import java.util.Arrays;
+
+/**
+ * Decoding of websafe Base64 ("base64url", RFC 4648 section 5) as used by consent strings, without allocating.
+ * Padding is optional and decoding stops at the first padding character.
+ */
+public final class WebSafeBase64 {
+    // 6 bit value of each ASCII character, -1 for characters outside of the websafe alphabet
+    private static final byte[] SEXTETS = new byte[128];
+
+    static {
+        Arrays.fill(SEXTETS, (byte) -1);
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            SEXTETS[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private static final char PADDING = '=';
+
+    private WebSafeBase64() {
+    }
+
+    /**
+     * @param c:
+     *            character to decode
+     * @return the 6 bit value of the character, -1 if it is not part of the websafe Base64 alphabet
+     */
+    public static int sextet(int c) {
+        return c < SEXTETS.length && c >= 0 ? SEXTETS[c] : -1;
+    }
+
+    /**
+     * @param src:
+     *            websafe Base64 characters
+     * @return the number of characters before padding
+     */
+    public static int unpaddedLength(CharSequence src) {
+        int length = src.length();
+        while (length > 0 && src.charAt(length - 1) == PADDING) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * @param src:
+     *            websafe Base64 characters
+     * @return the number of bytes {@link #decode(CharSequence, byte[])} writes for the characters
+     */
+    public static int decodedLength(CharSequence src) {
+        return decodedLength(unpaddedLength(src));
+    }
+
+    /**
+     * Decodes websafe Base64 characters into the beginning of the destination array
+     *
+     * @param src:
+     *            websafe Base64 characters
+     * @param dst:
+     *            destination array, must have room for {@link #decodedLength(CharSequence)} bytes
+     * @return the number of bytes written
+     * @throws IllegalArgumentException
+     *             when a character is not part of the websafe Base64 alphabet or the destination is too small
+     */
+    public static int decode(CharSequence src, byte[] dst) {
+        final int length = unpaddedLength(src);
+        final int decodedLength = decodedLength(length);
+        if (decodedLength > dst.length)
+            throw new IllegalArgumentException("Decoded length " + decodedLength + " exceeds buffer of " + dst.length + " bytes");
+
+        int bits = 0;
+        int bitCount = 0;
+        int dstIndex = 0;
+        for (int i = 0; i < length; i++) {
+            final int sextet = sextet(src.charAt(i));
+            if (sextet < 0)
+                throw new IllegalArgumentException("Illegal websafe base64 character " + src.charAt(i) + " at " + i);
+            bits = (bits << 6) | sextet;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[dstIndex++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return dstIndex;
+    }
+
+    /**
+     * Decodes websafe Base64 characters into the beginning of the destination array, reporting invalid input with
+     * the return value instead of an exception
+     *
+     * @param src:
+     *            websafe Base64 characters
+     * @param dst:
+     *            destination array
+     * @return the number of bytes written, or -1 when a character is not part of the websafe Base64 alphabet, the
+     *         length is illegal or the destination is too small
+     */
+    public static int tryDecode(CharSequence src, byte[] dst) {
+        final int length = unpaddedLength(src);
+        if (length % 4 == 1 || (long) length * 6 / 8 > dst.length)
+            return -1;
+
+        int bits = 0;
+        int bitCount = 0;
+        int dstIndex = 0;
+        for (int i = 0; i < length; i++) {
+            final int sextet = sextet(src.charAt(i));
+            if (sextet < 0)
+                return -1;
+            bits = (bits << 6) | sextet;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[dstIndex++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return dstIndex;
+    }
+
+    /**
+     * Decodes websafe Base64 characters encoded as ASCII bytes into the beginning of the destination array
+     *
+     * @param src:
+     *            array holding ASCII encoded websafe Base64 characters
+     * @param offset:
+     *            index of the first character
+     * @param length:
+     *            number of characters, including any padding
+     * @param dst:
+     *            destination array, must have room for the decoded bytes
+     * @return the number of bytes written
+     * @throws IllegalArgumentException
+     *             when a character is not part of the websafe Base64 alphabet or the destination is too small
+     */
+    public static int decode(byte[] src, int offset, int length, byte[] dst) {
+        while (length > 0 && src[offset + length - 1] == PADDING) {
+            length--;
+        }
+        final int decodedLength = decodedLength(length);
+        if (decodedLength > dst.length)
+            throw new IllegalArgumentException("Decoded length " + decodedLength + " exceeds buffer of " + dst.length + " bytes");
+
+        int bits = 0;
+        int bitCount = 0;
+        int dstIndex = 0;
+        for (int i = offset; i < offset + length; i++) {
+            final int sextet = sextet(src[i]);
+            if (sextet < 0)
+                throw new IllegalArgumentException("Illegal websafe base64 character " + (char) (src[i] & 0xFF) + " at " + (i - offset));
+            bits = (bits << 6) | sextet;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                dst[dstIndex++] = (byte) (bits >>> bitCount);
+            }
+        }
+        return dstIndex;
+    }
+
+    private static int decodedLength(int unpaddedLength) {
+        if (unpaddedLength % 4 == 1)
+            throw new IllegalArgumentException("Websafe base64 string has illegal length " + unpaddedLength);
+        return (int) ((long) unpaddedLength * 6 / 8);
+    }
+}
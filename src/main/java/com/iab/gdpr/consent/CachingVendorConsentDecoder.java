@@ -0,0 +1,166 @@
+package com.iab.gdpr.consent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link VendorConsent} decoder that keeps a bounded number of decoded consent strings. Consent strings are
+ * decoded with {@link DecodingStrategy#EAGER}, so returned instances are immutable and shared between all callers
+ * asking for the same consent string.
+ *
+ * Lookups of cached consent strings are lock free. The cache is split into segments, each evicting with the CLOCK
+ * algorithm: a hit only marks the entry as referenced, and when a segment is full its clock hand clears referenced
+ * marks until it finds an entry that was not used since the hand last passed it. Only inserts take the lock of
+ * the segment of the consent string, and decoding happens outside of it.
+ *
+ * Consent strings that fail to decode are not cached.
+ */
+public final class CachingVendorConsentDecoder {
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maximumSize maximum number of cached consent strings
+     */
+    public CachingVendorConsentDecoder(int maximumSize) {
+        this(maximumSize, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param maximumSize maximum number of cached consent strings
+     * @param concurrencyLevel expected number of threads inserting at the same time
+     */
+    public CachingVendorConsentDecoder(int maximumSize, int concurrencyLevel) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("Invalid value for maximumSize:" + maximumSize);
+        if (concurrencyLevel < 1)
+            throw new IllegalArgumentException("Invalid value for concurrencyLevel:" + concurrencyLevel);
+
+        // Power of two number of segments, each holding at least one entry
+        int segmentCount = Integer.highestOneBit(Math.min(maximumSize, concurrencyLevel));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // Spread the remainder so capacities add up to maximumSize
+            segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+        this.entries = new ConcurrentHashMap<>(maximumSize * 4 / 3 + 1, 0.75f, segmentCount);
+    }
+
+    /**
+     * Decode Base64 consent string, returning cached instance when the same consent string was decoded before
+     * @param consentString websafe Base64 consent string
+     * @return shared immutable vendor consent
+     */
+    public VendorConsent fromBase64String(String consentString) {
+        if (consentString == null || consentString.isEmpty())
+            throw new IllegalArgumentException("Null or empty consent string passed as an argument");
+
+        final Entry cached = entries.get(consentString);
+        if (cached != null) {
+            hits.increment();
+            if (!cached.referenced) cached.referenced = true;
+            return cached.vendorConsent;
+        }
+
+        misses.increment();
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64String(consentString, DecodingStrategy.EAGER);
+        return segmentFor(consentString).insert(new Entry(consentString, vendorConsent));
+    }
+
+    /**
+     * @return number of lookups that found the consent string in the cache
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that had to decode the consent string
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of consent strings evicted to make room for others
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return number of cached consent strings
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all cached consent strings. Counters are not reset.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(String consentString) {
+        final int hash = consentString.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static final class Entry {
+        final String consentString;
+        final VendorConsent vendorConsent;
+        // Racy writes are fine, a lost mark only makes eviction slightly less precise
+        volatile boolean referenced;
+
+        Entry(String consentString, VendorConsent vendorConsent) {
+            this.consentString = consentString;
+            this.vendorConsent = vendorConsent;
+        }
+    }
+
+    private final class Segment {
+        private final Entry[] ring;
+        private int hand;
+        private int size;
+
+        Segment(int capacity) {
+            this.ring = new Entry[capacity];
+        }
+
+        synchronized VendorConsent insert(Entry entry) {
+            // Another thread may have decoded the same consent string meanwhile, keep one shared instance
+            final Entry existing = entries.get(entry.consentString);
+            if (existing != null) return existing.vendorConsent;
+
+            if (size < ring.length) {
+                ring[size++] = entry;
+            } else {
+                while (ring[hand].referenced) {
+                    ring[hand].referenced = false;
+                    hand = (hand + 1) % ring.length;
+                }
+                entries.remove(ring[hand].consentString);
+                evictions.increment();
+                ring[hand] = entry;
+                hand = (hand + 1) % ring.length;
+            }
+            entries.put(entry.consentString, entry);
+            return entry.vendorConsent;
+        }
+
+        synchronized void clear() {
+            for (int i = 0; i < size; i++) {
+                entries.remove(ring[i].consentString);
+                ring[i] = null;
+            }
+            size = 0;
+            hand = 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.iab.gdpr.consent;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Result of decoding a consent string without exceptions: the decoded consent, or the {@link ConsentStatus} telling
+ * why it could not be decoded. Failures are shared instances, one per status, so rejecting a consent string
+ * allocates nothing.
+ */
+public final class ConsentDecodeResult {
+    private static final Map<ConsentStatus, ConsentDecodeResult> FAILURES = new EnumMap<>(ConsentStatus.class);
+
+    static {
+        for (ConsentStatus status : ConsentStatus.values()) {
+            if (status != ConsentStatus.VALID) FAILURES.put(status, new ConsentDecodeResult(status, null));
+        }
+    }
+
+    private final ConsentStatus status;
+    private final VendorConsent vendorConsent;
+
+    private ConsentDecodeResult(ConsentStatus status, VendorConsent vendorConsent) {
+        this.status = status;
+        this.vendorConsent = vendorConsent;
+    }
+
+    static ConsentDecodeResult success(VendorConsent vendorConsent) {
+        return new ConsentDecodeResult(ConsentStatus.VALID, vendorConsent);
+    }
+
+    static ConsentDecodeResult failure(ConsentStatus status) {
+        return FAILURES.get(status);
+    }
+
+    /**
+     * @return {@link ConsentStatus#VALID} when the consent string was decoded, the problem found otherwise
+     */
+    public ConsentStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the consent string was decoded
+     */
+    public boolean isValid() {
+        return status == ConsentStatus.VALID;
+    }
+
+    /**
+     * @return the decoded consent, null if the consent string could not be decoded
+     */
+    public VendorConsent getVendorConsent() {
+        return vendorConsent;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsentDecodeResult{Status=" + status + ",VendorConsent=" + vendorConsent + "}";
+    }
+}
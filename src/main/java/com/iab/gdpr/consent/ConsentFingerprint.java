@@ -0,0 +1,120 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.BitSource;
+import com.iab.gdpr.Bits;
+
+/**
+ * 64-bit fingerprint of consent bytes using the xxHash64 algorithm with seed 0. Unlike {@link java.util.Arrays#hashCode(byte[])}
+ * it processes 8 bytes per step and has good distribution in all 64 bits, so it can be used both as a hash key
+ * and for sharding consents.
+ *
+ * @see <a href="https://github.com/Cyan4973/xxHash">https://github.com/Cyan4973/xxHash</a>
+ */
+public final class ConsentFingerprint {
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private ConsentFingerprint() {
+    }
+
+    /**
+     * @param bytes consent bytes
+     * @return 64-bit fingerprint of the bytes
+     */
+    public static long of(byte[] bytes) {
+        return of(bytes, 0, bytes.length);
+    }
+
+    /**
+     * @param bytes array holding consent bytes
+     * @param offset offset of the first byte
+     * @param length number of bytes
+     * @return 64-bit fingerprint of the bytes
+     */
+    public static long of(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+            throw new IndexOutOfBoundsException("Invalid offset " + offset + " and length " + length + " for " + bytes.length + " bytes");
+        return of(new Bits(bytes), offset, length);
+    }
+
+    /**
+     * Fingerprint the bytes of a bit string in place, reading them a word at a time, so bit strings over part of a
+     * reused buffer or over encoded characters are not copied into an array first
+     * @param bits consent bits
+     * @return 64-bit fingerprint of the bytes of the bit string, same as of its {@link BitSource#toByteArray()}
+     */
+    public static long of(BitSource bits) {
+        return of(bits, 0, bits.length());
+    }
+
+    private static long of(BitSource bits, int offset, int length) {
+        final int end = offset + length;
+        int i = offset;
+        long hash;
+        if (length >= 32) {
+            long v1 = PRIME64_1 + PRIME64_2;
+            long v2 = PRIME64_2;
+            long v3 = 0;
+            long v4 = -PRIME64_1;
+            do {
+                v1 = round(v1, getLong(bits, i));
+                v2 = round(v2, getLong(bits, i + 8));
+                v3 = round(v3, getLong(bits, i + 16));
+                v4 = round(v4, getLong(bits, i + 24));
+                i += 32;
+            } while (i <= end - 32);
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = PRIME64_5;
+        }
+        hash += length;
+
+        for (; i <= end - 8; i += 8) {
+            hash ^= round(0, getLong(bits, i));
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (i <= end - 4) {
+            hash ^= (getInt(bits, i) & 0xFFFFFFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+            i += 4;
+        }
+        for (; i < end; i++) {
+            hash ^= bits.getLong(i << 3, Byte.SIZE) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0, val);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    // xxHash reads little endian words, bit strings are big endian
+    private static long getLong(BitSource bits, int byteIndex) {
+        return Long.reverseBytes(bits.getLong(byteIndex << 3, Long.SIZE));
+    }
+
+    private static int getInt(BitSource bits, int byteIndex) {
+        return Integer.reverseBytes((int) bits.getLong(byteIndex << 3, Integer.SIZE));
+    }
+}
@@ -0,0 +1,168 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.WebSafeBase64;
+
+import java.time.Instant;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Header fields of a consent string, from the version up to the allowed purposes, decoded into primitives for
+ * routing or sampling decisions. Only the first {@link #HEADER_CHARS} characters of the consent string are
+ * decoded and the vendor section is never read, so a consent string with a valid header but a malformed vendor
+ * section is still decoded.
+ *
+ * {@link #decode(CharSequence)} overwrites the fields in place and reports bad input with a {@link ConsentStatus},
+ * so decoding in a loop allocates nothing. Instances are not thread safe; keep one per thread.
+ */
+public final class ConsentHeader {
+
+    /**
+     * Number of websafe Base64 characters holding the header fields
+     */
+    public static final int HEADER_CHARS = (MAX_VENDOR_ID_OFFSET + 5) / 6;
+
+    private final byte[] buffer = new byte[(HEADER_CHARS * 6 + 7) / 8];
+    private final Bits bits = new Bits(buffer);
+
+    private int version;
+    private long consentRecordCreated; // epoch deciseconds
+    private long consentRecordLastUpdated; // epoch deciseconds
+    private int cmpId;
+    private int cmpVersion;
+    private int consentScreen;
+    private int vendorListVersion;
+    private int allowedPurposesBits;
+
+    /**
+     * Decode the header of a websafe Base64 consent string into this object. Fields are only valid when
+     * {@link ConsentStatus#VALID} is returned.
+     * @param consentString websafe Base64 consent string
+     * @return {@link ConsentStatus#VALID} or the problem found in the header
+     */
+    public ConsentStatus decode(CharSequence consentString) {
+        if (consentString == null || consentString.length() == 0)
+            return ConsentStatus.EMPTY;
+        if (WebSafeBase64.unpaddedLength(consentString) < HEADER_CHARS)
+            return ConsentStatus.TRUNCATED;
+
+        int accumulator = 0;
+        int bitCount = 0;
+        int byteIndex = 0;
+        for (int i = 0; i < HEADER_CHARS; i++) {
+            final int sextet = WebSafeBase64.sextet(consentString.charAt(i));
+            if (sextet < 0)
+                return ConsentStatus.INVALID_BASE64;
+            accumulator = (accumulator << 6) | sextet;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                buffer[byteIndex++] = (byte) (accumulator >>> bitCount);
+            }
+        }
+        if (bitCount > 0)
+            buffer[byteIndex] = (byte) (accumulator << (8 - bitCount));
+
+        version = bits.getInt(VERSION_BIT_OFFSET, VERSION_BIT_SIZE);
+        if (version != 1)
+            return ConsentStatus.UNSUPPORTED_VERSION;
+
+        consentRecordCreated = bits.getLong(CREATED_BIT_OFFSET, CREATED_BIT_SIZE);
+        consentRecordLastUpdated = bits.getLong(UPDATED_BIT_OFFSET, UPDATED_BIT_SIZE);
+        cmpId = bits.getInt(CMP_ID_OFFSET, CMP_ID_SIZE);
+        cmpVersion = bits.getInt(CMP_VERSION_OFFSET, CMP_VERSION_SIZE);
+        consentScreen = bits.getInt(CONSENT_SCREEN_SIZE_OFFSET, CONSENT_SCREEN_SIZE);
+        vendorListVersion = bits.getInt(VENDOR_LIST_VERSION_OFFSET, VENDOR_LIST_VERSION_SIZE);
+        allowedPurposesBits = bits.getInt(PURPOSES_OFFSET, PURPOSES_SIZE);
+        return ConsentStatus.VALID;
+    }
+
+    /**
+     * @return the version of consent string format
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the {@link Instant} at which the consent string was created
+     */
+    public Instant getConsentRecordCreated() {
+        return Instant.ofEpochMilli(consentRecordCreated * 100);
+    }
+
+    /**
+     * @return the {@link Instant} at which consent string was last updated
+     */
+    public Instant getConsentRecordLastUpdated() {
+        return Instant.ofEpochMilli(consentRecordLastUpdated * 100);
+    }
+
+    /**
+     * @return the Consent Manager Provider ID that last updated the consent string
+     */
+    public int getCmpId() {
+        return cmpId;
+    }
+
+    /**
+     * @return the Consent Manager Provider version
+     */
+    public int getCmpVersion() {
+        return cmpVersion;
+    }
+
+    /**
+     * @return the screen number in the CMP where consent was given
+     */
+    public int getConsentScreen() {
+        return consentScreen;
+    }
+
+    /**
+     * @return the two-letter ISO639-1 language code that CMP asked for consent in
+     */
+    public String getConsentLanguage() {
+        return bits.getSixBitString(CONSENT_LANGUAGE_OFFSET, CONSENT_LANGUAGE_SIZE);
+    }
+
+    /**
+     * @return version of vendor list used in most recent consent string update.
+     */
+    public int getVendorListVersion() {
+        return vendorListVersion;
+    }
+
+    /**
+     * @return an integer equivalent of allowed purpose id bits according to this consent string
+     */
+    public int getAllowedPurposesBits() {
+        return allowedPurposesBits;
+    }
+
+    /**
+     * Check whether purpose with specified ID is allowed
+     * @param purposeId purpose ID
+     * @return true if purpose is allowed in this consent, false otherwise
+     */
+    public boolean isPurposeAllowed(int purposeId) {
+        if (purposeId < 1 || purposeId > PURPOSES_SIZE) return false;
+        return (allowedPurposesBits >>> (PURPOSES_SIZE - purposeId) & 1) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsentHeader{" +
+                "Version=" + version +
+                ",Created=" + getConsentRecordCreated() +
+                ",LastUpdated=" + getConsentRecordLastUpdated() +
+                ",CmpId=" + cmpId +
+                ",CmpVersion=" + cmpVersion +
+                ",ConsentScreen=" + consentScreen +
+                ",ConsentLanguage=" + getConsentLanguage() +
+                ",VendorListVersion=" + vendorListVersion +
+                ",PurposesAllowed=" + allowedPurposesBits +
+                "}";
+    }
+}
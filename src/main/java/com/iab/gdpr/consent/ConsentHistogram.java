@@ -0,0 +1,201 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.ReusableVendorConsent;
+import com.iab.gdpr.exception.VendorConsentException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import static com.iab.gdpr.GdprConstants.CMP_ID_SIZE;
+import static com.iab.gdpr.GdprConstants.PURPOSES_SIZE;
+
+/**
+ * Counts of consents allowing each vendor and each purpose, and of consents per CMP. Counters are primitive arrays
+ * indexed by ID and vendors are visited with {@link VendorConsent#forEachAllowedVendorId(IntConsumer)}, so counting
+ * a bit field encoded consent allocates nothing.
+ *
+ * Instances are mutable and not thread safe. Parallel aggregation gives every fork-join task its own histogram and
+ * merges them at the end, see {@link #collector()}, so threads never share counters.
+ */
+public final class ConsentHistogram {
+    private static final int CMP_IDS = 1 << CMP_ID_SIZE;
+
+    private long count;
+    private long invalidCount;
+    private long[] vendorCounts = new long[1];
+    private final long[] purposeCounts = new long[PURPOSES_SIZE + 1];
+    private final long[] cmpCounts = new long[CMP_IDS];
+    // Reads the vendorCounts field on each call, so it keeps counting after the array grows
+    private final IntConsumer vendorCounter = vendorId -> vendorCounts[vendorId]++;
+    // Created on first use, only needed when adding consent strings
+    private ReusableVendorConsent reusableConsent;
+
+    /**
+     * Count consents in parallel
+     * @param consents consents to count
+     * @return histogram of the consents
+     */
+    public static ConsentHistogram of(Collection<? extends VendorConsent> consents) {
+        return of(consents.parallelStream());
+    }
+
+    /**
+     * Count consents of the stream, in parallel if the stream is parallel
+     * @param consents consents to count
+     * @return histogram of the consents
+     */
+    public static ConsentHistogram of(Stream<? extends VendorConsent> consents) {
+        return consents.collect(ConsentHistogram::new, ConsentHistogram::add, ConsentHistogram::merge);
+    }
+
+    /**
+     * Decode and count consent strings in parallel. Consent strings that fail to decode are counted in
+     * {@link #getInvalidCount()}.
+     * @param consentStrings websafe Base64 consent strings
+     * @return histogram of the consent strings
+     */
+    public static ConsentHistogram ofConsentStrings(Collection<String> consentStrings) {
+        return ofConsentStrings(consentStrings.parallelStream());
+    }
+
+    /**
+     * Decode and count consent strings of the stream, in parallel if the stream is parallel. Consent strings that
+     * fail to decode are counted in {@link #getInvalidCount()}.
+     * @param consentStrings websafe Base64 consent strings
+     * @return histogram of the consent strings
+     */
+    public static ConsentHistogram ofConsentStrings(Stream<String> consentStrings) {
+        return consentStrings.collect(ConsentHistogram::new, ConsentHistogram::add, ConsentHistogram::merge);
+    }
+
+    /**
+     * @return collector counting consents into a histogram per fork-join task, merged at the end
+     */
+    public static Collector<VendorConsent, ?, ConsentHistogram> collector() {
+        return Collector.of(ConsentHistogram::new, ConsentHistogram::add, ConsentHistogram::merge,
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Count consent. The vendor section is validated before the first vendor is counted, so a consent failing to
+     * parse leaves the histogram unchanged.
+     * @param vendorConsent consent to count
+     * @throws VendorConsentException if the consent cannot be parsed
+     */
+    public void add(VendorConsent vendorConsent) {
+        final int cmpId = vendorConsent.getCmpId();
+        final int purposes = vendorConsent.getAllowedPurposesBits();
+        final int maxVendorId = vendorConsent.getMaxVendorId();
+
+        if (maxVendorId >= vendorCounts.length) {
+            vendorCounts = Arrays.copyOf(vendorCounts, maxVendorId + 1);
+        }
+        vendorConsent.forEachAllowedVendorId(vendorCounter);
+        // Purpose 1 is the most significant of the purposes bits
+        int purposeBits = purposes;
+        while (purposeBits != 0) {
+            purposeCounts[PURPOSES_SIZE - Integer.numberOfTrailingZeros(purposeBits)]++;
+            purposeBits &= purposeBits - 1;
+        }
+        cmpCounts[cmpId]++;
+        count++;
+    }
+
+    /**
+     * Decode and count consent string. Consent strings that fail to decode are counted in {@link #getInvalidCount()}.
+     * @param consentString websafe Base64 consent string
+     */
+    public void add(String consentString) {
+        if (reusableConsent == null) reusableConsent = new ReusableVendorConsent();
+        try {
+            add(reusableConsent.reset(consentString));
+        } catch (IllegalArgumentException | IllegalStateException | VendorConsentException e) {
+            invalidCount++;
+        }
+    }
+
+    /**
+     * Add counts of another histogram to this one
+     * @param other histogram to add
+     * @return this histogram
+     */
+    public ConsentHistogram merge(ConsentHistogram other) {
+        if (other.vendorCounts.length > vendorCounts.length) {
+            vendorCounts = Arrays.copyOf(vendorCounts, other.vendorCounts.length);
+        }
+        addTo(vendorCounts, other.vendorCounts);
+        addTo(purposeCounts, other.purposeCounts);
+        addTo(cmpCounts, other.cmpCounts);
+        count += other.count;
+        invalidCount += other.invalidCount;
+        return this;
+    }
+
+    /**
+     * @return number of counted consents
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return number of consent strings that failed to decode
+     */
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * @param vendorId vendor ID
+     * @return number of consents allowing the vendor
+     */
+    public long getVendorAllowedCount(int vendorId) {
+        return vendorId > 0 && vendorId < vendorCounts.length ? vendorCounts[vendorId] : 0;
+    }
+
+    /**
+     * @param purposeId purpose ID
+     * @return number of consents allowing the purpose
+     */
+    public long getPurposeAllowedCount(int purposeId) {
+        return purposeId > 0 && purposeId <= PURPOSES_SIZE ? purposeCounts[purposeId] : 0;
+    }
+
+    /**
+     * @param cmpId Consent Manager Provider ID
+     * @return number of consents last updated by the CMP
+     */
+    public long getCmpCount(int cmpId) {
+        return cmpId >= 0 && cmpId < CMP_IDS ? cmpCounts[cmpId] : 0;
+    }
+
+    /**
+     * @return number of consents allowing each vendor, indexed by vendor ID up to the largest max vendor ID counted
+     */
+    public long[] getVendorAllowedCounts() {
+        return vendorCounts.clone();
+    }
+
+    /**
+     * @return number of consents allowing each purpose, indexed by purpose ID
+     */
+    public long[] getPurposeAllowedCounts() {
+        return purposeCounts.clone();
+    }
+
+    /**
+     * @return number of consents per CMP, indexed by CMP ID
+     */
+    public long[] getCmpCounts() {
+        return cmpCounts.clone();
+    }
+
+    private static void addTo(long[] counts, long[] other) {
+        for (int i = 0; i < other.length; i++) {
+            counts[i] += other[i];
+        }
+    }
+}
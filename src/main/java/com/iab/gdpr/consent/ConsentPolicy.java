@@ -0,0 +1,110 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Purpose;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static com.iab.gdpr.GdprConstants.PURPOSES_SIZE;
+
+/**
+ * Requirement that a vendor is allowed and that a set of purposes is allowed, compiled once into a vendor ID and a
+ * mask of purpose bits. Evaluating the policy is a single mask comparison against
+ * {@link VendorConsent#getAllowedPurposesBits()} plus one vendor lookup, instead of a separate
+ * {@link VendorConsent#isPurposeAllowed(Purpose)} call per purpose.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ConsentPolicy {
+    private final int vendorId;
+    private final int purposesBits;
+
+    private ConsentPolicy(int vendorId, int purposesBits) {
+        this.vendorId = vendorId;
+        this.purposesBits = purposesBits;
+    }
+
+    /**
+     * @param vendorId vendor ID that has to be allowed
+     * @param purposes purposes that all have to be allowed
+     * @return compiled policy
+     */
+    public static ConsentPolicy of(int vendorId, Set<Purpose> purposes) {
+        if (vendorId < 1)
+            throw new IllegalArgumentException("Invalid value for vendorId:" + vendorId);
+
+        return new ConsentPolicy(vendorId, purposesBits(purposes));
+    }
+
+    /**
+     * @param vendorId vendor ID that has to be allowed
+     * @param purposes purposes that all have to be allowed
+     * @return compiled policy
+     */
+    public static ConsentPolicy of(int vendorId, Purpose... purposes) {
+        final Set<Purpose> purposeSet = EnumSet.noneOf(Purpose.class);
+        purposeSet.addAll(Arrays.asList(purposes));
+        return of(vendorId, purposeSet);
+    }
+
+    /**
+     * Convert purposes to bits in the layout of {@link VendorConsent#getAllowedPurposesBits()}, where purpose 1 is
+     * the most significant of {@link com.iab.gdpr.GdprConstants#PURPOSES_SIZE} bits
+     * @param purposes purposes
+     * @return purpose bits
+     */
+    static int purposesBits(Collection<Purpose> purposes) {
+        int bits = 0;
+        for (Purpose purpose : purposes) {
+            final int purposeId = purpose.getId();
+            if (purposeId < 1 || purposeId > PURPOSES_SIZE)
+                throw new IllegalArgumentException("Invalid purpose:" + purpose);
+            bits |= 1 << (PURPOSES_SIZE - purposeId);
+        }
+        return bits;
+    }
+
+    /**
+     * @return vendor ID that has to be allowed
+     */
+    public int getVendorId() {
+        return vendorId;
+    }
+
+    /**
+     * @return bits of purposes that have to be allowed, in the layout of {@link VendorConsent#getAllowedPurposesBits()}
+     */
+    public int getPurposesBits() {
+        return purposesBits;
+    }
+
+    /**
+     * Evaluate the policy against a consent
+     * @param vendorConsent consent to check
+     * @return true if the vendor and all purposes of the policy are allowed
+     */
+    public boolean isAllowedBy(VendorConsent vendorConsent) {
+        return (vendorConsent.getAllowedPurposesBits() & purposesBits) == purposesBits
+                && vendorConsent.isVendorAllowed(vendorId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ConsentPolicy that = (ConsentPolicy) o;
+        return vendorId == that.vendorId && purposesBits == that.purposesBits;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * vendorId + purposesBits;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsentPolicy{VendorId=" + vendorId + ",PurposesBits=" + Integer.toBinaryString(purposesBits) + "}";
+    }
+}
@@ -0,0 +1,83 @@
+package com.iab.gdpr.consent;
+
+import java.util.List;
+
+/**
+ * Table of {@link ConsentPolicy} objects evaluated together against one consent. Purpose bits of the consent are
+ * read once and all vendors are checked with a single {@link VendorConsent#isVendorsAllowed(int[], boolean[])}
+ * call. When policies are added in ascending vendor ID order, range encoded consents are evaluated in one merge
+ * pass over the range entries.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ConsentPolicyTable {
+    private final ConsentPolicy[] policies;
+    private final int[] vendorIds;
+    private final int[] purposesBits;
+    private final int requiredPurposesBits; // purposes required by every policy
+
+    /**
+     * @param policies policies, results of evaluation are in the same order
+     */
+    public ConsentPolicyTable(List<ConsentPolicy> policies) {
+        this.policies = policies.toArray(new ConsentPolicy[0]);
+        this.vendorIds = new int[this.policies.length];
+        this.purposesBits = new int[this.policies.length];
+        int requiredPurposesBits = this.policies.length == 0 ? 0 : -1;
+        for (int i = 0; i < this.policies.length; i++) {
+            vendorIds[i] = this.policies[i].getVendorId();
+            purposesBits[i] = this.policies[i].getPurposesBits();
+            requiredPurposesBits &= purposesBits[i];
+        }
+        this.requiredPurposesBits = requiredPurposesBits;
+    }
+
+    /**
+     * @return number of policies in the table
+     */
+    public int size() {
+        return policies.length;
+    }
+
+    /**
+     * @param i policy number
+     * @return policy at specified position
+     */
+    public ConsentPolicy get(int i) {
+        return policies[i];
+    }
+
+    /**
+     * Evaluate all policies against a consent
+     * @param vendorConsent consent to check
+     * @param results array receiving at index i whether policy i is allowed, at least as long as the table
+     */
+    public void evaluate(VendorConsent vendorConsent, boolean[] results) {
+        if (results.length < policies.length)
+            throw new IllegalArgumentException("Results array is shorter than policy table");
+
+        final int allowedPurposesBits = vendorConsent.getAllowedPurposesBits();
+        if ((allowedPurposesBits & requiredPurposesBits) != requiredPurposesBits) {
+            // Purpose common to all policies is not allowed, no need to look at vendors
+            for (int i = 0; i < policies.length; i++)
+                results[i] = false;
+            return;
+        }
+
+        vendorConsent.isVendorsAllowed(vendorIds, results);
+        for (int i = 0; i < policies.length; i++) {
+            results[i] &= (allowedPurposesBits & purposesBits[i]) == purposesBits[i];
+        }
+    }
+
+    /**
+     * Evaluate all policies against a consent
+     * @param vendorConsent consent to check
+     * @return array holding at index i whether policy i is allowed
+     */
+    public boolean[] evaluate(VendorConsent vendorConsent) {
+        final boolean[] results = new boolean[policies.length];
+        evaluate(vendorConsent, results);
+        return results;
+    }
+}
@@ -0,0 +1,48 @@
+package com.iab.gdpr.consent;
+
+/**
+ * Outcome of checking or decoding a consent string, see {@link VendorConsentValidator} and
+ * {@link VendorConsentDecoder#tryFromBase64String(String, DecodingStrategy)}
+ */
+public enum ConsentStatus {
+
+    /**
+     * Consent string is well formed and every field can be read
+     */
+    VALID,
+
+    /**
+     * Consent string is null or empty
+     */
+    EMPTY,
+
+    /**
+     * Consent string has characters outside of the websafe Base64 alphabet or an illegal length
+     */
+    INVALID_BASE64,
+
+    /**
+     * Consent string is longer than any valid consent string
+     */
+    TOO_LONG,
+
+    /**
+     * Version field holds a version that is not supported
+     */
+    UNSUPPORTED_VERSION,
+
+    /**
+     * Consent string ends before the header, the bit field or the last range entry
+     */
+    TRUNCATED,
+
+    /**
+     * A range entry has a start vendor ID of 0 or greater than its end vendor ID
+     */
+    INVALID_RANGE_ENTRY,
+
+    /**
+     * A range entry covers vendor IDs greater than MaxVendorId
+     */
+    VENDOR_ID_OUT_OF_RANGE,
+}
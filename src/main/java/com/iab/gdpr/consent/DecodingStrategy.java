@@ -0,0 +1,29 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.ByteBufferBackedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.MaterializedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.RangeIndexedVendorConsent;
+
+/**
+ * How {@link VendorConsentDecoder} represents the decoded {@link VendorConsent}
+ */
+public enum DecodingStrategy {
+
+    /**
+     * Parse individual fields on demand, see {@link ByteBufferBackedVendorConsent}. Best when only a couple of
+     * checks are made before the consent is discarded.
+     */
+    LAZY,
+
+    /**
+     * Parse the range section once into a sorted index, see {@link RangeIndexedVendorConsent}. Best when many
+     * vendors are checked against a range encoded consent string.
+     */
+    RANGE_INDEXED,
+
+    /**
+     * Decode every field once into an immutable object with a bitmap of allowed vendors, see
+     * {@link MaterializedVendorConsent}. Best when decoded consent is cached and queried many times.
+     */
+    EAGER,
+}
@@ -0,0 +1,275 @@
+package com.iab.gdpr.consent;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of vendor or purpose IDs stored as a bitmap, where bit (id - 1) of the words is set when the ID
+ * is in the set. Unlike {@code Set<Integer>} it needs no object per ID, which makes it suitable for exporting
+ * consent values on every request.
+ */
+public final class IdBitmap {
+    private static final long[] NO_WORDS = new long[0];
+
+    private final long[] words;
+    private final int maxId;
+
+    private IdBitmap(long[] words, int maxId) {
+        this.words = words;
+        this.maxId = maxId;
+    }
+
+    /**
+     * Create bitmap from words
+     * @param words bitmap words where bit (id - 1) is set when the ID is in the set, copied by this method
+     * @param maxId largest ID the bitmap covers, bits past it are ignored
+     * @return bitmap
+     */
+    public static IdBitmap of(long[] words, int maxId) {
+        if (maxId < 0)
+            throw new IllegalArgumentException("Invalid value for maxId:" + maxId);
+
+        final long[] copy = Arrays.copyOf(words, wordsFor(maxId));
+        if (maxId % Long.SIZE != 0 && copy.length > 0) {
+            copy[copy.length - 1] &= -1L >>> -maxId;
+        }
+        return new IdBitmap(copy, maxId);
+    }
+
+    /**
+     * Create bitmap from IDs
+     * @param maxId largest ID the bitmap covers
+     * @param ids IDs in the set, IDs outside of [1, maxId] are ignored
+     * @return bitmap
+     */
+    public static IdBitmap of(int maxId, int... ids) {
+        if (maxId < 0)
+            throw new IllegalArgumentException("Invalid value for maxId:" + maxId);
+
+        final long[] words = new long[wordsFor(maxId)];
+        for (int id : ids) {
+            if (id > 0 && id <= maxId)
+                words[(id - 1) >>> 6] |= 1L << (id - 1);
+        }
+        return new IdBitmap(words, maxId);
+    }
+
+    /**
+     * @param maxId largest ID the bitmap covers
+     * @return empty bitmap
+     */
+    public static IdBitmap empty(int maxId) {
+        return of(NO_WORDS, maxId);
+    }
+
+    /**
+     * @param maxId largest ID
+     * @return number of words needed to hold IDs from 1 to maxId
+     */
+    public static int wordsFor(int maxId) {
+        return (maxId + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * @return largest ID the bitmap covers
+     */
+    public int maxId() {
+        return maxId;
+    }
+
+    /**
+     * @param id ID to check
+     * @return true if the ID is in the set
+     */
+    public boolean contains(int id) {
+        if (id < 1 || id > maxId) return false;
+        return (words[(id - 1) >>> 6] & (1L << (id - 1))) != 0;
+    }
+
+    /**
+     * @return number of IDs in the set
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return true if the set has no IDs
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Find the smallest ID in the set that is not smaller than the specified ID. Allows iterating the set
+     * without a callback: {@code for (int id = bitmap.nextId(1); id > 0; id = bitmap.nextId(id + 1))}
+     * @param fromId ID to start from
+     * @return the next ID in the set, or -1 if there is none
+     */
+    public int nextId(int fromId) {
+        if (fromId < 1) fromId = 1;
+        if (fromId > maxId) return -1;
+        int i = (fromId - 1) >>> 6;
+        long word = words[i] & (-1L << (fromId - 1));
+        while (word == 0) {
+            if (++i == words.length) return -1;
+            word = words[i];
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(word) + 1;
+    }
+
+    /**
+     * Call consumer with every ID in the set, in ascending order
+     * @param consumer ID consumer
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                consumer.accept((i << 6) + Long.numberOfTrailingZeros(word) + 1);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * @return IDs in the set in ascending order
+     */
+    public int[] toArray() {
+        final int[] ids = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                ids[n++] = (i << 6) + Long.numberOfTrailingZeros(word) + 1;
+                word &= word - 1;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return IDs in the set as a new mutable set
+     */
+    public Set<Integer> toSet() {
+        final Set<Integer> ids = new HashSet<>();
+        forEach(ids::add);
+        return ids;
+    }
+
+    /**
+     * @param other bitmap to intersect with
+     * @return IDs in both sets, covering IDs up to the smaller max ID
+     */
+    public IdBitmap and(IdBitmap other) {
+        final long[] result = new long[Math.min(words.length, other.words.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new IdBitmap(result, Math.min(maxId, other.maxId));
+    }
+
+    /**
+     * @param other bitmap to unite with
+     * @return IDs in either set, covering IDs up to the larger max ID
+     */
+    public IdBitmap or(IdBitmap other) {
+        final IdBitmap longer = words.length >= other.words.length ? this : other;
+        final IdBitmap shorter = longer == this ? other : this;
+        final long[] result = longer.words.clone();
+        for (int i = 0; i < shorter.words.length; i++) {
+            result[i] |= shorter.words[i];
+        }
+        return new IdBitmap(result, Math.max(maxId, other.maxId));
+    }
+
+    /**
+     * @param other bitmap to compare with
+     * @return IDs in exactly one of the sets, covering IDs up to the larger max ID
+     */
+    public IdBitmap xor(IdBitmap other) {
+        final IdBitmap longer = words.length >= other.words.length ? this : other;
+        final IdBitmap shorter = longer == this ? other : this;
+        final long[] result = longer.words.clone();
+        for (int i = 0; i < shorter.words.length; i++) {
+            result[i] ^= shorter.words[i];
+        }
+        return new IdBitmap(result, Math.max(maxId, other.maxId));
+    }
+
+    /**
+     * @param other bitmap of IDs to remove
+     * @return IDs in this set but not in the other, covering the same IDs as this bitmap
+     */
+    public IdBitmap andNot(IdBitmap other) {
+        final long[] result = words.clone();
+        final int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            result[i] &= ~other.words[i];
+        }
+        return new IdBitmap(result, maxId);
+    }
+
+    /**
+     * Count IDs in both sets without creating the intersection
+     * @param other bitmap to intersect with
+     * @return number of IDs in both sets
+     */
+    public int andCardinality(IdBitmap other) {
+        final int length = Math.min(words.length, other.words.length);
+        int cardinality = 0;
+        for (int i = 0; i < length; i++) {
+            cardinality += Long.bitCount(words[i] & other.words[i]);
+        }
+        return cardinality;
+    }
+
+    /**
+     * @param other bitmap to check
+     * @return true if the sets have at least one ID in common
+     */
+    public boolean intersects(IdBitmap other) {
+        final int length = Math.min(words.length, other.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & other.words[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return copy of the bitmap words, bit (id - 1) is set when the ID is in the set
+     */
+    public long[] toLongArray() {
+        return words.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdBitmap that = (IdBitmap) o;
+        return maxId == that.maxId && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * maxId + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("IdBitmap{MaxId=").append(maxId).append(",Ids=[");
+        forEach(id -> builder.append(id).append(','));
+        if (builder.charAt(builder.length() - 1) == ',') builder.setLength(builder.length() - 1);
+        return builder.append("]}").toString();
+    }
+}
@@ -2,8 +2,12 @@ package com.iab.gdpr.consent;
 
 import com.iab.gdpr.Purpose;
 
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.util.Set;
+import java.util.function.IntConsumer;
+
+import static com.iab.gdpr.GdprConstants.PURPOSES_SIZE;
 
 /**
  * Representation of the values in the vendor consent string.
@@ -67,6 +71,19 @@ public interface VendorConsent {
      */
     Set<Integer> getAllowedPurposeIds();
 
+    /**
+     *
+     * @return the bitmap of purpose id's which are permitted according to this consent string
+     */
+    default IdBitmap getAllowedPurposeBitmap() {
+        final long[] words = new long[1];
+        for (int purposeId = 1; purposeId <= PURPOSES_SIZE; purposeId++) {
+            if (isPurposeAllowed(purposeId))
+                words[0] |= 1L << (purposeId - 1);
+        }
+        return IdBitmap.of(words, PURPOSES_SIZE);
+    }
+
     /**
      *
      * @return the set of allowed purposes which are permitted according to this consent string
@@ -85,6 +102,29 @@ public interface VendorConsent {
      */
     Set<Integer> getAllowedVendorIds();
 
+    /**
+     *
+     * @return the bitmap of allowed vendor id's which are permitted according to this consent string
+     */
+    default IdBitmap getAllowedVendorBitmap() {
+        final int maxVendorId = getMaxVendorId();
+        final long[] words = new long[IdBitmap.wordsFor(maxVendorId)];
+        for (int vendorId = 1; vendorId <= maxVendorId; vendorId++) {
+            if (isVendorAllowed(vendorId))
+                words[(vendorId - 1) >>> 6] |= 1L << (vendorId - 1);
+        }
+        return IdBitmap.of(words, maxVendorId);
+    }
+
+    /**
+     * Call consumer with every allowed vendor id in ascending order, without boxing. A vendor section that cannot be
+     * parsed fails before the consumer is called.
+     * @param consumer vendor id consumer
+     */
+    default void forEachAllowedVendorId(IntConsumer consumer) {
+        getAllowedVendorBitmap().forEach(consumer);
+    }
+
     /**
      *
      * @return the maximum VendorId for which consent values are given.
@@ -112,10 +152,53 @@ public interface VendorConsent {
      */
     boolean isVendorAllowed(int vendorId);
 
+    /**
+     * Check whether vendors with specified IDs are allowed. Implementations read the vendor section once for all
+     * vendors, which is cheaper than calling {@link #isVendorAllowed(int)} for each of them.
+     * @param vendorIds vendor IDs in any order
+     * @param results array receiving at index i whether vendorIds[i] is allowed, at least as long as vendorIds
+     */
+    default void isVendorsAllowed(int[] vendorIds, boolean[] results) {
+        if (results.length < vendorIds.length)
+            throw new IllegalArgumentException("Results array is shorter than vendor IDs array");
+
+        for (int i = 0; i < vendorIds.length; i++) {
+            results[i] = isVendorAllowed(vendorIds[i]);
+        }
+    }
+
+    /**
+     * Check whether vendors with specified IDs are allowed
+     * @param vendorIds vendor IDs in any order
+     * @return array holding at index i whether vendorIds[i] is allowed
+     * @see #isVendorsAllowed(int[], boolean[])
+     */
+    default boolean[] isVendorsAllowed(int[] vendorIds) {
+        final boolean[] results = new boolean[vendorIds.length];
+        isVendorsAllowed(vendorIds, results);
+        return results;
+    }
+
     /**
      *
      * @return the value of this consent as byte array
      */
     byte[] toByteArray();
 
+    /**
+     * Implementations holding immutable bytes return a view of them without copying
+     * @return the value of this consent as read-only byte buffer
+     */
+    default ByteBuffer asReadOnlyByteBuffer() {
+        return ByteBuffer.wrap(toByteArray()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Equal consents have equal fingerprints, so the fingerprint can be used to shard or partition consents
+     * @return 64-bit {@link ConsentFingerprint} of the value of this consent
+     */
+    default long getFingerprint() {
+        return ConsentFingerprint.of(toByteArray());
+    }
+
 }
@@ -1,9 +1,15 @@
 package com.iab.gdpr.consent;
 
+import com.iab.gdpr.BitSource;
 import com.iab.gdpr.Bits;
+import com.iab.gdpr.WebSafeBase64;
 import com.iab.gdpr.consent.implementation.v1.ByteBufferBackedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.MaterializedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.RangeIndexedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.ReusableVendorConsent;
 
 import java.util.Base64;
+import java.util.Objects;
 
 import static com.iab.gdpr.GdprConstants.VERSION_BIT_OFFSET;
 import static com.iab.gdpr.GdprConstants.VERSION_BIT_SIZE;
@@ -17,21 +23,99 @@ public class VendorConsentDecoder {
     private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
 
     public static VendorConsent fromBase64String(String consentString) {
+        return fromBase64String(consentString, DecodingStrategy.LAZY);
+    }
+
+    /**
+     * Decode Base64 consent string using specified strategy
+     * @param consentString websafe Base64 consent string
+     * @param strategy how decoded consent is represented
+     * @return vendor consent
+     */
+    public static VendorConsent fromBase64String(String consentString, DecodingStrategy strategy) {
         if (isNullOrEmpty(consentString))
             throw new IllegalArgumentException("Null or empty consent string passed as an argument");
 
-        return fromByteArray(BASE64_DECODER.decode(consentString));
+        return fromByteArray(BASE64_DECODER.decode(consentString), strategy);
+    }
+
+    /**
+     * Decode Base64 consent string using specified strategy without throwing for bad input. The consent string is
+     * checked with {@link VendorConsentValidator} before it is decoded, so the decoded consent does not throw for
+     * truncated bits or malformed range entries afterwards either.
+     * @param consentString websafe Base64 consent string
+     * @param strategy how decoded consent is represented
+     * @return decoded consent, or the {@link ConsentStatus} telling why it could not be decoded
+     */
+    public static ConsentDecodeResult tryFromBase64String(String consentString, DecodingStrategy strategy) {
+        Objects.requireNonNull(strategy, "Argument strategy is null");
+        if (isNullOrEmpty(consentString))
+            return ConsentDecodeResult.failure(ConsentStatus.EMPTY);
+
+        final long decodedLength = (long) WebSafeBase64.unpaddedLength(consentString) * 6 / 8;
+        if (decodedLength > ReusableVendorConsent.MAX_CONSENT_BYTES)
+            return ConsentDecodeResult.failure(ConsentStatus.TOO_LONG);
+
+        final byte[] bytes = new byte[(int) decodedLength];
+        if (WebSafeBase64.tryDecode(consentString, bytes) < 0)
+            return ConsentDecodeResult.failure(ConsentStatus.INVALID_BASE64);
+
+        final ConsentStatus status = VendorConsentValidator.validate(bytes);
+        if (status != ConsentStatus.VALID)
+            return ConsentDecodeResult.failure(status);
+        return ConsentDecodeResult.success(fromByteArray(bytes, strategy));
+    }
+
+    /**
+     * Decode Base64 consent string lazily, without decoding it into a byte array first. Fields are read straight
+     * out of the characters when accessed, so checks that touch only a small part of the string avoid decoding
+     * the rest. Characters are validated as they are read, and invalid ones are reported with
+     * {@link com.iab.gdpr.exception.VendorConsentParseException} by the accessor that reads them.
+     * {@link VendorConsent#toByteArray()} decodes the whole string, equals and hashCode read it without decoding.
+     * @param consentString websafe Base64 consent string
+     * @return vendor consent reading from the consent string
+     */
+    public static VendorConsent fromBase64Chars(CharSequence consentString) {
+        if (consentString == null || consentString.length() == 0)
+            throw new IllegalArgumentException("Null or empty consent string passed as an argument");
+
+        final BitSource bits = new WebSafeBase64Bits(consentString);
+        final int version = getVersion(bits);
+        switch (version) {
+            case 1:
+                return new ByteBufferBackedVendorConsent(bits);
+            default:
+                throw new IllegalStateException("Unsupported version: " + version);
+        }
     }
 
     public static VendorConsent fromByteArray(byte[] bytes) {
+        return fromByteArray(bytes, DecodingStrategy.LAZY);
+    }
+
+    /**
+     * Decode consent bytes using specified strategy
+     * @param bytes consent string bytes
+     * @param strategy how decoded consent is represented
+     * @return vendor consent
+     */
+    public static VendorConsent fromByteArray(byte[] bytes, DecodingStrategy strategy) {
         if (bytes == null || bytes.length == 0)
             throw new IllegalArgumentException("Null or empty consent bytes passed as an argument");
+        Objects.requireNonNull(strategy, "Argument strategy is null");
 
         final Bits bits = new Bits(bytes);
         final int version = getVersion(bits);
         switch (version) {
             case 1:
-                return new ByteBufferBackedVendorConsent(bits);
+                switch (strategy) {
+                    case RANGE_INDEXED:
+                        return new RangeIndexedVendorConsent(bits);
+                    case EAGER:
+                        return new MaterializedVendorConsent(bits);
+                    default:
+                        return new ByteBufferBackedVendorConsent(bits);
+                }
             default:
                 throw new IllegalStateException("Unsupported version: " + version);
         }
@@ -42,7 +126,7 @@ public class VendorConsentDecoder {
      * @param bits bitmap
      * @return a version number
      */
-    private static int getVersion(Bits bits) {
+    private static int getVersion(BitSource bits) {
         return bits.getInt(VERSION_BIT_OFFSET, VERSION_BIT_SIZE);
     }
 
@@ -0,0 +1,203 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.WebSafeBase64;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Deduplicates decoded consents with byte-identical consent strings, so that stores holding many consents keep
+ * one shared instance per distinct consent string. Consents are looked up by their {@link ConsentFingerprint},
+ * and consents with equal fingerprints are compared byte by byte, so fingerprint collisions never merge
+ * different consents.
+ *
+ * The interner holds no copy of the consent bytes: each entry is a weak reference to the consent and its
+ * primitive fingerprint, and bytes are compared through {@link VendorConsent#asReadOnlyByteBuffer()} of the
+ * interned consent. Once no one else holds a consent it can be garbage collected and is dropped from the
+ * interner. Interned consents should be immutable, like those decoded with {@link DecodingStrategy#EAGER}, which
+ * also expose their bytes without copying.
+ *
+ * Instances are safe for use by multiple threads. Lookups are lock free, and inserts only lock the segment of
+ * the fingerprint.
+ */
+public final class VendorConsentInterner {
+    private static final int SEGMENT_BITS = 4;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+    private final ReferenceQueue<VendorConsent> collected = new ReferenceQueue<>();
+
+    public VendorConsentInterner() {
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * @param vendorConsent consent to intern
+     * @return previously interned consent with the same bytes, or specified consent if there is none
+     */
+    public VendorConsent intern(VendorConsent vendorConsent) {
+        expungeCollected();
+        final long fingerprint = vendorConsent.getFingerprint();
+        return segmentFor(fingerprint).intern(fingerprint, vendorConsent.asReadOnlyByteBuffer(), vendorConsent);
+    }
+
+    /**
+     * Decode Base64 consent string with {@link DecodingStrategy#EAGER}, unless a consent with the same bytes is
+     * already interned
+     * @param consentString websafe Base64 consent string
+     * @return interned consent
+     */
+    public VendorConsent fromBase64String(String consentString) {
+        if (consentString == null || consentString.isEmpty())
+            throw new IllegalArgumentException("Null or empty consent string passed as an argument");
+
+        final byte[] bytes = new byte[WebSafeBase64.decodedLength(consentString)];
+        WebSafeBase64.decode(consentString, bytes);
+        final long fingerprint = ConsentFingerprint.of(bytes);
+        final Segment segment = segmentFor(fingerprint);
+        final VendorConsent interned = segment.find(fingerprint, ByteBuffer.wrap(bytes));
+        if (interned != null) return interned;
+
+        expungeCollected();
+        final VendorConsent decoded = VendorConsentDecoder.fromByteArray(bytes, DecodingStrategy.EAGER);
+        return segment.intern(fingerprint, ByteBuffer.wrap(bytes), decoded);
+    }
+
+    /**
+     * @return number of distinct consents held, including ones collected but not yet dropped
+     */
+    public int size() {
+        expungeCollected();
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Drop nodes whose consents were garbage collected
+     */
+    private void expungeCollected() {
+        Node node;
+        while ((node = (Node) collected.poll()) != null) {
+            segmentFor(node.fingerprint).expunge(node.fingerprint);
+        }
+    }
+
+    private Segment segmentFor(long fingerprint) {
+        return segments[hash(fingerprint) >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    private static int hash(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    private static VendorConsent find(Node node, long fingerprint, ByteBuffer bytes) {
+        for (; node != null; node = node.next) {
+            if (node.fingerprint != fingerprint) continue;
+            final VendorConsent vendorConsent = node.get();
+            if (vendorConsent != null && vendorConsent.asReadOnlyByteBuffer().equals(bytes)) return vendorConsent;
+        }
+        return null;
+    }
+
+    /**
+     * Hash table of node chains indexed by fingerprint. The table and the chains are never modified in place
+     * except for replacing a chain head, so lookups need no lock; changes are made under the segment lock.
+     */
+    private final class Segment {
+        private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(INITIAL_SEGMENT_CAPACITY);
+        // Guarded by this
+        private int count;
+
+        VendorConsent find(long fingerprint, ByteBuffer bytes) {
+            final AtomicReferenceArray<Node> table = this.table;
+            return VendorConsentInterner.find(table.get(indexFor(fingerprint, table)), fingerprint, bytes);
+        }
+
+        synchronized VendorConsent intern(long fingerprint, ByteBuffer bytes, VendorConsent vendorConsent) {
+            AtomicReferenceArray<Node> table = this.table;
+            int index = indexFor(fingerprint, table);
+            final VendorConsent interned = VendorConsentInterner.find(table.get(index), fingerprint, bytes);
+            if (interned != null) return interned;
+
+            if (count >= table.length() - (table.length() >>> 2)) {
+                table = resize();
+                index = indexFor(fingerprint, table);
+            }
+            table.set(index, new Node(vendorConsent, fingerprint, unlinkCollected(table.get(index))));
+            count++;
+            return vendorConsent;
+        }
+
+        synchronized void expunge(long fingerprint) {
+            final AtomicReferenceArray<Node> table = this.table;
+            final int index = indexFor(fingerprint, table);
+            final Node head = table.get(index);
+            final Node unlinked = unlinkCollected(head);
+            if (unlinked != head) table.set(index, unlinked);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        /**
+         * Copy live nodes into a table twice as large and publish it
+         */
+        private AtomicReferenceArray<Node> resize() {
+            final AtomicReferenceArray<Node> oldTable = this.table;
+            final AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+            for (int i = 0; i < oldTable.length(); i++) {
+                for (Node node = oldTable.get(i); node != null; node = node.next) {
+                    final VendorConsent vendorConsent = node.get();
+                    if (vendorConsent == null) {
+                        count--;
+                        continue;
+                    }
+                    final int index = indexFor(node.fingerprint, newTable);
+                    newTable.set(index, new Node(vendorConsent, node.fingerprint, newTable.get(index)));
+                }
+            }
+            this.table = newTable;
+            return newTable;
+        }
+
+        /**
+         * @return chain without nodes whose consents were garbage collected, sharing the unchanged tail
+         */
+        private Node unlinkCollected(Node head) {
+            if (head == null) return null;
+            final Node next = unlinkCollected(head.next);
+            final VendorConsent vendorConsent = head.get();
+            if (vendorConsent == null) {
+                count--;
+                return next;
+            }
+            return next == head.next ? head : new Node(vendorConsent, head.fingerprint, next);
+        }
+
+        private int indexFor(long fingerprint, AtomicReferenceArray<Node> table) {
+            return hash(fingerprint) & (table.length() - 1);
+        }
+    }
+
+    /**
+     * Chain of consents in a table slot. Nodes are never modified, chains are copied on change.
+     */
+    private final class Node extends WeakReference<VendorConsent> {
+        final long fingerprint;
+        final Node next;
+
+        Node(VendorConsent vendorConsent, long fingerprint, Node next) {
+            super(vendorConsent, collected);
+            this.fingerprint = fingerprint;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.implementation.v1.MaterializedVendorConsent;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Current consent of each user, shared by all request handling threads. Only immutable
+ * {@link MaterializedVendorConsent} instances are stored: other consents are copied into one when they are put,
+ * so a consent read from the registry can be used and passed between threads without synchronization.
+ *
+ * Reads are lock free. A user's consent is replaced atomically: {@link #replace(Object, VendorConsent, VendorConsent)}
+ * is a compare-and-set, and {@link #update(Object, UnaryOperator)} retries it until no other update gets in between.
+ *
+ * @param <K> type of user ID
+ */
+public final class VendorConsentRegistry<K> {
+    private final ConcurrentHashMap<K, VendorConsent> consents = new ConcurrentHashMap<>();
+
+    /**
+     * @param userId user ID
+     * @return current consent of the user, null if there is none
+     */
+    public VendorConsent get(K userId) {
+        return consents.get(userId);
+    }
+
+    /**
+     * Set consent of the user, replacing the current one
+     * @param userId user ID
+     * @param vendorConsent consent, copied unless it is already immutable
+     * @return the stored immutable consent
+     */
+    public VendorConsent put(K userId, VendorConsent vendorConsent) {
+        Objects.requireNonNull(userId, "Argument userId is null");
+        final VendorConsent immutable = immutable(vendorConsent);
+        consents.put(userId, immutable);
+        return immutable;
+    }
+
+    /**
+     * Decode consent string and set it as consent of the user, replacing the current one
+     * @param userId user ID
+     * @param consentString websafe Base64 consent string
+     * @return the stored immutable consent
+     */
+    public VendorConsent putBase64String(K userId, String consentString) {
+        return put(userId, VendorConsentDecoder.fromBase64String(consentString, DecodingStrategy.EAGER));
+    }
+
+    /**
+     * Replace consent of the user only if it is still equal to the expected one. Consents are equal when their
+     * bytes are, so this compares fingerprints first and bytes only when they match.
+     * @param userId user ID
+     * @param expected consent read earlier from this registry
+     * @param updated new consent, copied unless it is already immutable
+     * @return true if the consent was replaced, false if the user has a different consent or none
+     */
+    public boolean replace(K userId, VendorConsent expected, VendorConsent updated) {
+        Objects.requireNonNull(expected, "Argument expected is null");
+        return consents.replace(userId, expected, immutable(updated));
+    }
+
+    /**
+     * Replace consent of the user with one derived from it, for example with a
+     * {@link com.iab.gdpr.consent.implementation.v1.VendorConsentMutator}. If another thread replaces the consent
+     * in the meantime, the updater is called again with the new current consent, so it must have no side effects.
+     * @param userId user ID
+     * @param updater function deriving the new consent from the current one
+     * @return the stored immutable consent, null if the user has no consent
+     */
+    public VendorConsent update(K userId, UnaryOperator<VendorConsent> updater) {
+        Objects.requireNonNull(updater, "Argument updater is null");
+        while (true) {
+            final VendorConsent current = consents.get(userId);
+            if (current == null) return null;
+
+            final VendorConsent updated = immutable(updater.apply(current));
+            if (consents.replace(userId, current, updated)) return updated;
+        }
+    }
+
+    /**
+     * @param userId user ID
+     * @return removed consent of the user, null if there was none
+     */
+    public VendorConsent remove(K userId) {
+        return consents.remove(userId);
+    }
+
+    /**
+     * @return number of users with a consent
+     */
+    public int size() {
+        return consents.size();
+    }
+
+    private static VendorConsent immutable(VendorConsent vendorConsent) {
+        Objects.requireNonNull(vendorConsent, "Argument vendorConsent is null");
+        if (vendorConsent instanceof MaterializedVendorConsent) return vendorConsent;
+        return new MaterializedVendorConsent(new Bits(vendorConsent.toByteArray()));
+    }
+}
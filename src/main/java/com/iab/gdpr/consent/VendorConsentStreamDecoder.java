@@ -0,0 +1,131 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.ReusableVendorConsent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Decoder of newline delimited websafe Base64 consent strings, such as consent logs. Input is read in blocks into a
+ * buffer owned by the decoder, and every line is decoded straight from that buffer into a
+ * {@link ReusableVendorConsent}, so no {@link String} or consent object is created per line.
+ *
+ * Lines may end with "\n" or "\r\n", and empty lines are skipped. Lines that are not valid consent strings are
+ * passed to {@link VendorConsentVisitor#invalid(long, RuntimeException)}. Fields are parsed on demand, so a
+ * truncated consent string may still fail with {@link com.iab.gdpr.exception.VendorConsentParseException} when the
+ * visitor reads it.
+ *
+ * Instances are not thread safe, use one decoder per thread.
+ */
+public final class VendorConsentStreamDecoder {
+
+    /**
+     * Longest line holding a valid consent string: websafe Base64 of {@link ReusableVendorConsent#MAX_CONSENT_BYTES}
+     * with padding and a carriage return
+     */
+    public static final int MAX_LINE_LENGTH = (ReusableVendorConsent.MAX_CONSENT_BYTES + 2) / 3 * 4 + 1;
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final ByteBuffer buffer;
+    private final ReusableVendorConsent vendorConsent = new ReusableVendorConsent();
+
+    public VendorConsentStreamDecoder() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize size of the read buffer in bytes, must be greater than {@link #MAX_LINE_LENGTH}
+     */
+    public VendorConsentStreamDecoder(int bufferSize) {
+        if (bufferSize <= MAX_LINE_LENGTH)
+            throw new IllegalArgumentException("Invalid value for bufferSize:" + bufferSize);
+
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Decode every line of the stream. The stream is read to the end but not closed.
+     * @param in stream of newline delimited websafe Base64 consent strings
+     * @param visitor callback receiving decoded consents
+     * @return number of decoded consent strings
+     * @throws IOException if reading the stream fails
+     */
+    public long decode(InputStream in, VendorConsentVisitor visitor) throws IOException {
+        return decode(Channels.newChannel(in), visitor);
+    }
+
+    /**
+     * Decode every line of the channel. The channel is read to the end but not closed.
+     * @param channel blocking channel of newline delimited websafe Base64 consent strings
+     * @param visitor callback receiving decoded consents
+     * @return number of decoded consent strings
+     * @throws IOException if reading the channel fails
+     */
+    public long decode(ReadableByteChannel channel, VendorConsentVisitor visitor) throws IOException {
+        final byte[] bytes = buffer.array();
+        buffer.clear();
+
+        long lineNumber = 0;
+        long decoded = 0;
+        // Set while discarding the rest of a line that did not fit into the buffer
+        boolean skipping = false;
+        int lineStart = 0;
+        int scan = 0;
+        boolean endOfStream = false;
+        while (!endOfStream) {
+            endOfStream = channel.read(buffer) < 0;
+            final int end = buffer.position();
+
+            for (; scan < end; scan++) {
+                if (bytes[scan] != '\n') continue;
+                lineNumber++;
+                if (skipping) {
+                    skipping = false;
+                } else if (decodeLine(bytes, lineStart, scan, lineNumber, visitor)) {
+                    decoded++;
+                }
+                lineStart = scan + 1;
+            }
+
+            if (endOfStream) {
+                if (lineStart < end && !skipping && decodeLine(bytes, lineStart, end, lineNumber + 1, visitor)) {
+                    decoded++;
+                }
+            } else if (lineStart == 0 && end == bytes.length) {
+                // Buffer is full without a line break, the line cannot be a valid consent string
+                if (!skipping) {
+                    skipping = true;
+                    visitor.invalid(lineNumber + 1,
+                            new IllegalArgumentException("Line is longer than " + MAX_LINE_LENGTH + " characters"));
+                }
+                buffer.clear();
+                scan = 0;
+            } else {
+                // Move the partial line to the beginning of the buffer and read more after it
+                System.arraycopy(bytes, lineStart, bytes, 0, end - lineStart);
+                buffer.position(end - lineStart);
+                scan -= lineStart;
+                lineStart = 0;
+            }
+        }
+        return decoded;
+    }
+
+    private boolean decodeLine(byte[] bytes, int start, int end, long lineNumber, VendorConsentVisitor visitor) {
+        if (end > start && bytes[end - 1] == '\r') end--;
+        if (end == start) return false;
+
+        try {
+            vendorConsent.reset(bytes, start, end - start);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            visitor.invalid(lineNumber, e);
+            return false;
+        }
+        visitor.visit(lineNumber, vendorConsent);
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.BitSource;
+import com.iab.gdpr.Bits;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Checks the structure of a consent string in a single pass over its header and vendor section, without throwing
+ * exceptions. Decoded consents only detect a truncated string or a malformed range entry when an accessor reads
+ * the affected bits, so validating at ingest rejects such strings once, before they are decoded and queried.
+ */
+public final class VendorConsentValidator {
+
+    private static final int SINGLE_ENTRY_SIZE = 1 + VENDOR_ID_SIZE;
+    private static final int START_END_ENTRY_SIZE = 1 + 2 * VENDOR_ID_SIZE;
+
+    private VendorConsentValidator() {
+    }
+
+    /**
+     * @param bytes consent string bytes
+     * @return {@link ConsentStatus#VALID} or the first problem found
+     */
+    public static ConsentStatus validate(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return ConsentStatus.EMPTY;
+        return validate(new Bits(bytes));
+    }
+
+    /**
+     * Every read is checked against the limit of the bits first, so bits backed by a byte array never throw
+     * @param bits consent string bits
+     * @return {@link ConsentStatus#VALID} or the first problem found
+     */
+    public static ConsentStatus validate(BitSource bits) {
+        final long size = (long) bits.length() * Byte.SIZE;
+        if (size == 0) return ConsentStatus.EMPTY;
+        if (bits.getInt(VERSION_BIT_OFFSET, VERSION_BIT_SIZE) != 1) return ConsentStatus.UNSUPPORTED_VERSION;
+        if (size < ENCODING_TYPE_OFFSET + ENCODING_TYPE_SIZE) return ConsentStatus.TRUNCATED;
+
+        final int maxVendorId = bits.getInt(MAX_VENDOR_ID_OFFSET, MAX_VENDOR_ID_SIZE);
+        if (bits.getInt(ENCODING_TYPE_OFFSET, ENCODING_TYPE_SIZE) != VENDOR_ENCODING_RANGE) {
+            return size < VENDOR_BITFIELD_OFFSET + maxVendorId ? ConsentStatus.TRUNCATED : ConsentStatus.VALID;
+        }
+
+        if (size < RANGE_ENTRY_OFFSET) return ConsentStatus.TRUNCATED;
+        final int numEntries = bits.getInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE);
+        int offset = RANGE_ENTRY_OFFSET;
+        for (int i = 0; i < numEntries; i++) {
+            if (offset + SINGLE_ENTRY_SIZE > size) return ConsentStatus.TRUNCATED;
+            final boolean isRange = bits.getBit(offset);
+            final int startVendorId = bits.getInt(offset + 1, VENDOR_ID_SIZE);
+            int endVendorId = startVendorId;
+            if (isRange) {
+                if (offset + START_END_ENTRY_SIZE > size) return ConsentStatus.TRUNCATED;
+                endVendorId = bits.getInt(offset + SINGLE_ENTRY_SIZE, VENDOR_ID_SIZE);
+            }
+            if (startVendorId < 1 || startVendorId > endVendorId) return ConsentStatus.INVALID_RANGE_ENTRY;
+            if (endVendorId > maxVendorId) return ConsentStatus.VENDOR_ID_OUT_OF_RANGE;
+            offset += isRange ? START_END_ENTRY_SIZE : SINGLE_ENTRY_SIZE;
+        }
+        return ConsentStatus.VALID;
+    }
+}
@@ -0,0 +1,26 @@
+package com.iab.gdpr.consent;
+
+/**
+ * Callback receiving consents decoded from a stream of consent strings, see {@link VendorConsentStreamDecoder}
+ */
+@FunctionalInterface
+public interface VendorConsentVisitor {
+
+    /**
+     * Called for every decoded consent string. The consent is only valid during the call, copy out what has to be
+     * retained.
+     * @param lineNumber 1 based number of the line holding the consent string
+     * @param vendorConsent decoded consent
+     */
+    void visit(long lineNumber, VendorConsent vendorConsent);
+
+    /**
+     * Called for every line that is not a valid consent string. By default the exception is rethrown, which stops
+     * decoding of the stream.
+     * @param lineNumber 1 based number of the line
+     * @param cause reason the line could not be decoded
+     */
+    default void invalid(long lineNumber, RuntimeException cause) {
+        throw cause;
+    }
+}
@@ -0,0 +1,102 @@
+package com.iab.gdpr.consent;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Precompiled set of vendors a caller cares about, such as its partners, applied to consents to find which of
+ * them are allowed. Only these vendors are looked at: a bit field consent is read at their bits, and the range
+ * entries of a range consent are merged with the sorted vendor IDs in one pass, so neither the full set of allowed
+ * vendors nor any boxed ID is created.
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class VendorUniverse {
+    private final int[] vendorIds;
+    private final IdBitmap bitmap;
+
+    private VendorUniverse(int[] vendorIds) {
+        this.vendorIds = vendorIds;
+        this.bitmap = IdBitmap.of(vendorIds.length == 0 ? 0 : vendorIds[vendorIds.length - 1], vendorIds);
+    }
+
+    /**
+     * @param vendorIds vendor IDs in any order, duplicates are ignored
+     * @return universe of the vendors
+     * @throws IllegalArgumentException if a vendor ID is less than 1
+     */
+    public static VendorUniverse of(int... vendorIds) {
+        final int[] sorted = vendorIds.clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0 && sorted[0] < 1)
+            throw new IllegalArgumentException("Invalid vendor ID:" + sorted[0]);
+        return new VendorUniverse(Arrays.stream(sorted).distinct().toArray());
+    }
+
+    /**
+     * @param vendorIds vendor IDs, duplicates are ignored
+     * @return universe of the vendors
+     * @throws IllegalArgumentException if a vendor ID is less than 1
+     */
+    public static VendorUniverse of(Collection<Integer> vendorIds) {
+        return of(vendorIds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * @return number of vendors in the universe
+     */
+    public int size() {
+        return vendorIds.length;
+    }
+
+    /**
+     * @return vendor IDs of the universe in ascending order
+     */
+    public int[] getVendorIds() {
+        return vendorIds.clone();
+    }
+
+    /**
+     * @return vendors of the universe as a bitmap
+     */
+    public IdBitmap getVendorBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Check every vendor of the universe against the consent without allocating
+     * @param vendorConsent consent to check
+     * @param results array receiving at index i whether the i-th vendor of {@link #getVendorIds()} is allowed, at
+     *                least {@link #size()} long
+     */
+    public void isAllowedBy(VendorConsent vendorConsent, boolean[] results) {
+        vendorConsent.isVendorsAllowed(vendorIds, results);
+    }
+
+    /**
+     * @param vendorConsent consent to check
+     * @return vendor IDs of the universe allowed by the consent, in ascending order
+     */
+    public int[] getAllowedVendorIds(VendorConsent vendorConsent) {
+        final boolean[] results = new boolean[vendorIds.length];
+        vendorConsent.isVendorsAllowed(vendorIds, results);
+        int count = 0;
+        for (boolean allowed : results) {
+            if (allowed) count++;
+        }
+        final int[] allowedVendorIds = new int[count];
+        for (int i = 0, n = 0; n < count; i++) {
+            if (results[i]) allowedVendorIds[n++] = vendorIds[i];
+        }
+        return allowedVendorIds;
+    }
+
+    /**
+     * @param vendorConsent consent to check
+     * @return bitmap of the vendors of the universe allowed by the consent, covering IDs up to the largest vendor ID
+     * of the universe
+     */
+    public IdBitmap getAllowedVendorBitmap(VendorConsent vendorConsent) {
+        return IdBitmap.of(bitmap.maxId(), getAllowedVendorIds(vendorConsent));
+    }
+}
@@ -0,0 +1,89 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.BitSource;
+import com.iab.gdpr.WebSafeBase64;
+import com.iab.gdpr.exception.VendorConsentException;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+/**
+ * {@link BitSource} view over websafe Base64 characters. Every character carries 6 bits of the bit string, so
+ * fields are read by mapping bit positions straight to characters, without decoding the whole string into a byte
+ * array first. Only the characters covering a requested field are looked at, and only those are validated.
+ *
+ * {@link #toByteArray()} decodes the whole string into a new array on every call. Fingerprints are computed with
+ * {@link ConsentFingerprint#of(BitSource)}, which reads words without decoding into an array.
+ */
+final class WebSafeBase64Bits implements BitSource {
+    private static final int SEXTET_SIZE = 6;
+    // characters that fit in a long, 60 bits
+    private static final int SEXTETS_PER_LONG = Long.SIZE / SEXTET_SIZE;
+
+    private final CharSequence chars;
+    private final int limit; // in bytes, as for the decoded bit string
+
+    WebSafeBase64Bits(CharSequence chars) {
+        this.chars = chars;
+        this.limit = WebSafeBase64.decodedLength(chars);
+    }
+
+    @Override
+    public int length() {
+        return limit;
+    }
+
+    @Override
+    public boolean getBit(int index) {
+        checkBounds(index);
+        return (sextet(index / SEXTET_SIZE) & (0x20 >>> (index % SEXTET_SIZE))) != 0;
+    }
+
+    @Override
+    public long getLong(int startInclusive, int size) throws VendorConsentException {
+        if (size > Long.SIZE) {
+            throw new VendorConsentParseException("can't fit bit range in long: " + size);
+        }
+        if (size <= 0) {
+            return 0;
+        }
+        checkBounds(startInclusive + size - 1);
+
+        final int charIndex = startInclusive / SEXTET_SIZE;
+        final int bitOffset = startInclusive % SEXTET_SIZE;
+        final int coveredBits = bitOffset + size;
+        final int wordChars = (coveredBits + SEXTET_SIZE - 1) / SEXTET_SIZE;
+        if (wordChars > SEXTETS_PER_LONG) {
+            // Field wider than the characters that fit in a long, read it in two halves
+            final int lowSize = size / 2;
+            return (getLong(startInclusive, size - lowSize) << lowSize) | getLong(startInclusive + size - lowSize, lowSize);
+        }
+
+        long word = 0;
+        for (int i = 0; i < wordChars; i++) {
+            word = (word << SEXTET_SIZE) | sextet(charIndex + i);
+        }
+        return (word >>> (wordChars * SEXTET_SIZE - coveredBits)) & (-1L >>> (Long.SIZE - size));
+    }
+
+    /**
+     * @return decoded bytes of the bit string, this decodes the whole string
+     */
+    @Override
+    public byte[] toByteArray() {
+        final byte[] bytes = new byte[limit];
+        WebSafeBase64.decode(chars, bytes);
+        return bytes;
+    }
+
+    private void checkBounds(int lastIndex) {
+        final int byteIndex = lastIndex >>> 3;
+        if (byteIndex > limit - 1)
+            throw new VendorConsentParseException("Expected consent string to contain at least " + (byteIndex + 1) + " bytes, but found only " + limit + " bytes");
+    }
+
+    private int sextet(int charIndex) {
+        final int sextet = WebSafeBase64.sextet(chars.charAt(charIndex));
+        if (sextet < 0)
+            throw new VendorConsentParseException("Illegal websafe base64 character " + chars.charAt(charIndex) + " at " + charIndex);
+        return sextet;
+    }
+}
@@ -1,22 +1,24 @@
 package com.iab.gdpr.consent.implementation.v1;
 
 
+import com.iab.gdpr.BitSource;
 import com.iab.gdpr.Bits;
 import com.iab.gdpr.Purpose;
+import com.iab.gdpr.consent.ConsentFingerprint;
+import com.iab.gdpr.consent.IdBitmap;
 import com.iab.gdpr.consent.VendorConsent;
 import com.iab.gdpr.exception.VendorConsentParseException;
 
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static com.iab.gdpr.GdprConstants.*;
 
 /**
- * Implementation of {@link VendorConsent}. This implementation uses byte buffer (wrapped with {@link Bits})
+ * Implementation of {@link VendorConsent}. This implementation uses byte buffer (wrapped with {@link Bits}), or another {@link BitSource},
  * as a storage of consent string values and parses individual fields on demand.
  *
  * This should work well in environment where vendor consent string is decoded, couple of isPurposeAllowed()/isVendorAllowed()
@@ -27,9 +29,12 @@ import static com.iab.gdpr.GdprConstants.*;
  *
  */
 public class ByteBufferBackedVendorConsent implements VendorConsent {
-    private final Bits bits;
+    private final BitSource bits;
+    // Zero until computed. Volatile, as a plain long write may be split in two halves (JLS 17.7) and another
+    // thread could read a wrong non-zero value; a racy recomputation then yields the same value.
+    private volatile long fingerprint;
 
-    public ByteBufferBackedVendorConsent(Bits bits) {
+    public ByteBufferBackedVendorConsent(BitSource bits) {
         this.bits = bits;
     }
 
@@ -75,13 +80,14 @@ public class ByteBufferBackedVendorConsent implements VendorConsent {
 
     @Override
     public Set<Integer> getAllowedPurposeIds() {
-        final Set<Integer> allowedPurposes = new HashSet<>();
-        for (int i = PURPOSES_OFFSET; i < PURPOSES_OFFSET + PURPOSES_SIZE; i++) {
-            if (bits.getBit(i)) {
-                allowedPurposes.add(i - PURPOSES_OFFSET + 1);
-            }
-        }
-        return allowedPurposes;
+        return getAllowedPurposeBitmap().toSet();
+    }
+
+    @Override
+    public IdBitmap getAllowedPurposeBitmap() {
+        // Purpose 1 is the most significant bit, reverse so purpose 1 is bit 0
+        final long purposes = Integer.reverse(getAllowedPurposesBits() << (Integer.SIZE - PURPOSES_SIZE)) & 0xFFFFFFFFL;
+        return IdBitmap.of(new long[] { purposes }, PURPOSES_SIZE);
     }
 
     @Override
@@ -96,45 +102,45 @@ public class ByteBufferBackedVendorConsent implements VendorConsent {
 
     @Override
     public Set<Integer> getAllowedVendorIds() {
-        final Set<Integer> allowedVendorIds = new HashSet<>();
+        return getAllowedVendorBitmap().toSet();
+    }
+
+    @Override
+    public IdBitmap getAllowedVendorBitmap() {
+        final int maxVendorId = getMaxVendorId();
+        return IdBitmap.of(VendorBitmaps.decode(bits, maxVendorId, encodingType()), maxVendorId);
+    }
+
+    @Override
+    public void forEachAllowedVendorId(IntConsumer consumer) {
         final int maxVendorId = getMaxVendorId();
         if (encodingType() == VENDOR_ENCODING_RANGE) {
-            final Set<Integer> vendorIds = new HashSet<>();
-            final boolean isDefaultConsent = bits.getBit(DEFAULT_CONSENT_OFFSET);
-            final int numEntries = bits.getInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE);
-            int currentOffset = RANGE_ENTRY_OFFSET;
-            for (int i = 0; i < numEntries; i++) {
-                final boolean isRange = bits.getBit(currentOffset);
-                currentOffset++;
-                if(isRange) {
-                    int startVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
-                    currentOffset += VENDOR_ID_SIZE;
-                    int endVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
-                    currentOffset += VENDOR_ID_SIZE;
-                    validate(startVendorId, endVendorId, maxVendorId);
-                    IntStream.rangeClosed(startVendorId, endVendorId).forEach(vendorIds::add);
-                } else {
-                    int singleVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
-                    currentOffset += VENDOR_ID_SIZE;
-                    validate(singleVendorId, maxVendorId);
-                    vendorIds.add(singleVendorId);
+            // Range entries may overlap, so normalize them into words before calling the consumer
+            final long[] words = VendorBitmaps.decode(bits, maxVendorId, VENDOR_ENCODING_RANGE);
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept((i << 6) + Long.numberOfTrailingZeros(word) + 1);
+                    word &= word - 1;
                 }
             }
-            if (isDefaultConsent) {
-                IntStream.rangeClosed(1, getMaxVendorId())
-                    .filter(id -> !vendorIds.contains(id))
-                    .forEach(allowedVendorIds::add);
-            } else {
-                allowedVendorIds.addAll(vendorIds);
-            }
-        } else {
-            for (int i = VENDOR_BITFIELD_OFFSET; i < VENDOR_BITFIELD_OFFSET + maxVendorId; i++) {
-                if(bits.getBit(i)) {
-                    allowedVendorIds.add(i - VENDOR_BITFIELD_OFFSET + 1);
-                }
+            return;
+        }
+        // Check length up front, so a truncated bit field fails before the consumer is called
+        final int bitFieldEnd = VENDOR_BITFIELD_OFFSET + maxVendorId;
+        if (bits.length() < (bitFieldEnd + 7) >>> 3)
+            throw new VendorConsentParseException("Expected consent string to contain at least " + ((bitFieldEnd + 7) >>> 3)
+                    + " bytes, but found only " + bits.length() + " bytes");
+        // Read the bit field a word at a time and walk the set bits of each word
+        for (int i = 0; i < maxVendorId; i += Long.SIZE) {
+            final int wordSize = Math.min(Long.SIZE, maxVendorId - i);
+            long word = bits.getLong(VENDOR_BITFIELD_OFFSET + i, wordSize) << (Long.SIZE - wordSize);
+            while (word != 0) {
+                final int leadingZeros = Long.numberOfLeadingZeros(word);
+                consumer.accept(i + leadingZeros + 1);
+                word &= ~(Long.MIN_VALUE >>> leadingZeros);
             }
         }
-        return allowedVendorIds;
     }
 
     @Override
@@ -167,16 +173,64 @@ public class ByteBufferBackedVendorConsent implements VendorConsent {
         }
     }
 
+    @Override
+    public void isVendorsAllowed(int[] vendorIds, boolean[] results) {
+        if (results.length < vendorIds.length)
+            throw new IllegalArgumentException("Results array is shorter than vendor IDs array");
+
+        final int maxVendorId = getMaxVendorId();
+        if (encodingType() == VENDOR_ENCODING_RANGE) {
+            final boolean defaultConsent = bits.getBit(DEFAULT_CONSENT_OFFSET);
+            if (RangeSectionIndex.isSorted(vendorIds)) {
+                // Merge range entries straight from the bits with the sorted vendor IDs, without building an index
+                markPresentInRange(vendorIds, results);
+                for (int i = 0; i < vendorIds.length; i++) {
+                    final int vendorId = vendorIds[i];
+                    results[i] = vendorId >= 1 && vendorId <= maxVendorId && results[i] != defaultConsent;
+                }
+            } else {
+                // Parse range entries once for all vendors instead of scanning them per vendor
+                RangeSectionIndex.parse(bits, maxVendorId).lookup(vendorIds, defaultConsent, maxVendorId, results);
+            }
+        } else {
+            for (int i = 0; i < vendorIds.length; i++) {
+                final int vendorId = vendorIds[i];
+                results[i] = vendorId >= 1 && vendorId <= maxVendorId && bits.getBit(VENDOR_BITFIELD_OFFSET + vendorId - 1);
+            }
+        }
+    }
+
     @Override
     public byte[] toByteArray() {
         return bits.toByteArray();
     }
 
+    /**
+     * Fingerprint is computed on first use and cached. The bits are hashed in place, without copying them.
+     * @return 64-bit {@link ConsentFingerprint} of the consent bytes
+     */
+    @Override
+    public long getFingerprint() {
+        long fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = ConsentFingerprint.of(bits);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Drop cached fingerprint after the underlying bytes changed
+     */
+    void clearFingerprint() {
+        fingerprint = 0;
+    }
+
     /**
      *
      * @return the encoding type - 0=BitField 1=Range
      */
-    private int encodingType() {
+    int encodingType() {
         return bits.getInt(ENCODING_TYPE_OFFSET, ENCODING_TYPE_SIZE);
     }
 
@@ -211,7 +265,55 @@ public class ByteBufferBackedVendorConsent implements VendorConsent {
         return false;
     }
 
-    private static void validate(int startVendorId, int endVendorId, int maxVendorId) throws VendorConsentParseException {
+    /**
+     * Mark sorted vendor IDs that are present in the range section of the bits. Every range entry is located among
+     * the vendor IDs with a binary search, so entries may come in any order. This assumes that encoding type was
+     * already checked and is VENDOR_ENCODING_RANGE
+     * @param vendorIds vendor IDs in ascending order
+     * @param present array receiving at index i whether vendorIds[i] is present
+     */
+    private void markPresentInRange(int[] vendorIds, boolean[] present) {
+        Arrays.fill(present, 0, vendorIds.length, false);
+        final int numEntries = bits.getInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE);
+        final int maxVendorId = getMaxVendorId();
+        int currentOffset = RANGE_ENTRY_OFFSET;
+        for (int i = 0; i < numEntries; i++) {
+            final boolean range = bits.getBit(currentOffset);
+            currentOffset++;
+            final int startVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
+            currentOffset += VENDOR_ID_SIZE;
+            final int endVendorId;
+            if (range) {
+                endVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
+                currentOffset += VENDOR_ID_SIZE;
+                validate(startVendorId, endVendorId, maxVendorId);
+            } else {
+                endVendorId = startVendorId;
+                validate(startVendorId, maxVendorId);
+            }
+            for (int j = lowerBound(vendorIds, startVendorId); j < vendorIds.length && vendorIds[j] <= endVendorId; j++) {
+                present[j] = true;
+            }
+        }
+    }
+
+    /**
+     * @return index of the first sorted vendor ID not less than the specified one
+     */
+    private static int lowerBound(int[] vendorIds, int vendorId) {
+        int low = 0;
+        int high = vendorIds.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (vendorIds[mid] < vendorId)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    static void validate(int startVendorId, int endVendorId, int maxVendorId) throws VendorConsentParseException {
         if (startVendorId > endVendorId || endVendorId > maxVendorId) {
             throw new VendorConsentParseException(
                     "Start VendorId must not be greater than End VendorId and "
@@ -219,7 +321,7 @@ public class ByteBufferBackedVendorConsent implements VendorConsent {
         }
     }
 
-    private static void validate(int singleVendorId, int maxVendorId) throws VendorConsentParseException{
+    static void validate(int singleVendorId, int maxVendorId) throws VendorConsentParseException{
         if (singleVendorId > maxVendorId) {
             throw new VendorConsentParseException(
                     "VendorId in the range entries must not be greater than Max VendorId");
@@ -229,14 +331,29 @@ public class ByteBufferBackedVendorConsent implements VendorConsent {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof ByteBufferBackedVendorConsent)) return false;
         ByteBufferBackedVendorConsent that = (ByteBufferBackedVendorConsent) o;
-        return Arrays.equals(bits.toByteArray(), that.bits.toByteArray());
+        if (getFingerprint() != that.getFingerprint()) return false;
+        return sameBits(bits, that.bits);
+    }
+
+    /**
+     * Compare bit strings a word at a time, without copying them
+     */
+    private static boolean sameBits(BitSource bits, BitSource other) {
+        final int length = bits.length();
+        if (length != other.length()) return false;
+        final int size = length << 3;
+        for (int i = 0; i < size; i += Long.SIZE) {
+            final int wordSize = Math.min(Long.SIZE, size - i);
+            if (bits.getLong(i, wordSize) != other.getLong(i, wordSize)) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(bits.toByteArray());
+        return Long.hashCode(getFingerprint());
     }
 
     @Override
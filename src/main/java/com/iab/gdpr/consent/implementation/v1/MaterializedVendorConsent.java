@@ -0,0 +1,183 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.ConsentFingerprint;
+import com.iab.gdpr.consent.IdBitmap;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.function.IntConsumer;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Immutable implementation of {@link VendorConsent} that decodes every field once at construction. Vendor consent
+ * is normalized into an {@link IdBitmap} regardless of the encoding used in the consent string, with default consent
+ * already applied, so {@link #isVendorAllowed(int)} is a single word lookup.
+ *
+ * This is meant for environments where decoded consent is kept for a longer time and queried many times, for
+ * example in a per session cache. The consent bytes are copied at construction and only exposed as copies or
+ * read-only views, and every field, including the fingerprint, is final and set at construction. Instances can
+ * therefore be published to other threads without synchronization. The class is final, so no subclass can add
+ * mutable state.
+ *
+ */
+public final class MaterializedVendorConsent extends ByteBufferBackedVendorConsent {
+    private final int version;
+    private final long consentRecordCreated; // epoch deciseconds
+    private final long consentRecordLastUpdated; // epoch deciseconds
+    private final int cmpId;
+    private final int cmpVersion;
+    private final int consentScreen;
+    private final String consentLanguage;
+    private final int vendorListVersion;
+    private final int allowedPurposesBits;
+    private final int maxVendorId;
+    private final IdBitmap allowedVendors;
+    private final IdBitmap allowedPurposes;
+    private final byte[] bytes;
+    private final long fingerprint;
+
+    /**
+     * @param bits consent string bits, copied by this constructor
+     * @throws VendorConsentParseException if the consent string is truncated or the range section is invalid
+     */
+    public MaterializedVendorConsent(Bits bits) throws VendorConsentParseException {
+        this(bits.copyBytes());
+    }
+
+    private MaterializedVendorConsent(byte[] bytes) throws VendorConsentParseException {
+        this(bytes, new Bits(bytes));
+    }
+
+    private MaterializedVendorConsent(byte[] bytes, Bits bits) throws VendorConsentParseException {
+        super(bits);
+        this.bytes = bytes;
+        this.fingerprint = ConsentFingerprint.of(bytes);
+        this.version = super.getVersion();
+        this.consentRecordCreated = bits.getLong(CREATED_BIT_OFFSET, CREATED_BIT_SIZE);
+        this.consentRecordLastUpdated = bits.getLong(UPDATED_BIT_OFFSET, UPDATED_BIT_SIZE);
+        this.cmpId = super.getCmpId();
+        this.cmpVersion = super.getCmpVersion();
+        this.consentScreen = super.getConsentScreen();
+        this.consentLanguage = super.getConsentLanguage();
+        this.vendorListVersion = super.getVendorListVersion();
+        this.allowedPurposesBits = super.getAllowedPurposesBits();
+        this.maxVendorId = super.getMaxVendorId();
+        this.allowedVendors = IdBitmap.of(VendorBitmaps.decode(bits, maxVendorId, encodingType()), maxVendorId);
+        this.allowedPurposes = super.getAllowedPurposeBitmap();
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public Instant getConsentRecordCreated() {
+        return Instant.ofEpochMilli(consentRecordCreated * 100);
+    }
+
+    @Override
+    public Instant getConsentRecordLastUpdated() {
+        return Instant.ofEpochMilli(consentRecordLastUpdated * 100);
+    }
+
+    @Override
+    public int getCmpId() {
+        return cmpId;
+    }
+
+    @Override
+    public int getCmpVersion() {
+        return cmpVersion;
+    }
+
+    @Override
+    public int getConsentScreen() {
+        return consentScreen;
+    }
+
+    @Override
+    public String getConsentLanguage() {
+        return consentLanguage;
+    }
+
+    @Override
+    public int getVendorListVersion() {
+        return vendorListVersion;
+    }
+
+    @Override
+    public int getAllowedPurposesBits() {
+        return allowedPurposesBits;
+    }
+
+    @Override
+    public boolean isPurposeAllowed(int purposeId) {
+        if (purposeId < 1 || purposeId > PURPOSES_SIZE) return false;
+        return (allowedPurposesBits & (1 << (PURPOSES_SIZE - purposeId))) != 0;
+    }
+
+    @Override
+    public int getMaxVendorId() {
+        return maxVendorId;
+    }
+
+    @Override
+    public boolean isVendorAllowed(int vendorId) {
+        return allowedVendors.contains(vendorId);
+    }
+
+    @Override
+    public void isVendorsAllowed(int[] vendorIds, boolean[] results) {
+        if (results.length < vendorIds.length)
+            throw new IllegalArgumentException("Results array is shorter than vendor IDs array");
+
+        for (int i = 0; i < vendorIds.length; i++) {
+            results[i] = allowedVendors.contains(vendorIds[i]);
+        }
+    }
+
+    @Override
+    public IdBitmap getAllowedVendorBitmap() {
+        return allowedVendors;
+    }
+
+    @Override
+    public IdBitmap getAllowedPurposeBitmap() {
+        return allowedPurposes;
+    }
+
+    @Override
+    public void forEachAllowedVendorId(IntConsumer consumer) {
+        allowedVendors.forEach(consumer);
+    }
+
+    /**
+     * @return copy of the consent string bytes
+     */
+    @Override
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    /**
+     * @return read-only view of the consent string bytes, without copying them
+     */
+    @Override
+    public ByteBuffer asReadOnlyByteBuffer() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Fingerprint is computed at construction, so it is safely published with the rest of the fields
+     * @return 64-bit {@link ConsentFingerprint} of the consent bytes
+     */
+    @Override
+    public long getFingerprint() {
+        return fingerprint;
+    }
+}
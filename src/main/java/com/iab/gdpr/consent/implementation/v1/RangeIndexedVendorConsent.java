@@ -0,0 +1,69 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.IdBitmap;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Implementation of {@link VendorConsent} for range encoded consent strings. The range section is parsed once at
+ * construction into sorted arrays of vendor ID intervals, so {@link #isVendorAllowed(int)} is a binary search
+ * instead of a scan over every range entry.
+ *
+ * Header fields and bit field encoded vendors are read on demand as in {@link ByteBufferBackedVendorConsent}.
+ * Unlike that implementation, invalid range entries are reported when the object is constructed.
+ *
+ */
+public class RangeIndexedVendorConsent extends ByteBufferBackedVendorConsent {
+    private final int maxVendorId;
+    private final boolean defaultConsent;
+    private final RangeSectionIndex rangeSection; // null when bit field encoding is used
+
+    /**
+     * @param bits consent string bits
+     * @throws VendorConsentParseException if the range section is invalid
+     */
+    public RangeIndexedVendorConsent(Bits bits) throws VendorConsentParseException {
+        super(bits);
+        this.maxVendorId = super.getMaxVendorId();
+        if (encodingType() == VENDOR_ENCODING_RANGE) {
+            this.defaultConsent = bits.getBit(DEFAULT_CONSENT_OFFSET);
+            this.rangeSection = RangeSectionIndex.parse(bits, maxVendorId);
+        } else {
+            this.defaultConsent = false;
+            this.rangeSection = null;
+        }
+    }
+
+    @Override
+    public int getMaxVendorId() {
+        return maxVendorId;
+    }
+
+    @Override
+    public boolean isVendorAllowed(int vendorId) {
+        if (rangeSection == null) return super.isVendorAllowed(vendorId);
+        if (vendorId < 1 || vendorId > maxVendorId) return false;
+        return rangeSection.contains(vendorId) != defaultConsent;
+    }
+
+    @Override
+    public void isVendorsAllowed(int[] vendorIds, boolean[] results) {
+        if (rangeSection == null) {
+            super.isVendorsAllowed(vendorIds, results);
+            return;
+        }
+        if (results.length < vendorIds.length)
+            throw new IllegalArgumentException("Results array is shorter than vendor IDs array");
+
+        rangeSection.lookup(vendorIds, defaultConsent, maxVendorId, results);
+    }
+
+    @Override
+    public IdBitmap getAllowedVendorBitmap() {
+        if (rangeSection == null) return super.getAllowedVendorBitmap();
+        return IdBitmap.of(VendorBitmaps.fromRanges(rangeSection, defaultConsent, maxVendorId), maxVendorId);
+    }
+}
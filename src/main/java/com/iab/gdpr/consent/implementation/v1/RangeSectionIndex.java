@@ -0,0 +1,160 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.BitSource;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+import java.util.Arrays;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Range section of a range encoded consent string parsed into sorted primitive arrays. Range entries are sorted
+ * by start vendor ID and overlapping or adjacent entries are merged, so the index holds disjoint intervals
+ * that can be binary searched.
+ */
+final class RangeSectionIndex {
+    private final int[] startVendorIds;
+    private final int[] endVendorIds;
+
+    private RangeSectionIndex(int[] startVendorIds, int[] endVendorIds) {
+        this.startVendorIds = startVendorIds;
+        this.endVendorIds = endVendorIds;
+    }
+
+    /**
+     * Parse the range section of the bits. This assumes that encoding type was already checked and is
+     * VENDOR_ENCODING_RANGE
+     * @param bits consent string bits
+     * @param maxVendorId max vendor ID of the consent string
+     * @return range section index
+     * @throws VendorConsentParseException if range entries are invalid or the range section is truncated
+     */
+    static RangeSectionIndex parse(BitSource bits, int maxVendorId) throws VendorConsentParseException {
+        final int numEntries = bits.getInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE);
+
+        // Pack each entry as start << 32 | end so entries can be sorted as primitives
+        final long[] entries = new long[numEntries];
+        int currentOffset = RANGE_ENTRY_OFFSET;
+        for (int i = 0; i < numEntries; i++) {
+            final boolean isRange = bits.getBit(currentOffset);
+            currentOffset++;
+            final int startVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
+            currentOffset += VENDOR_ID_SIZE;
+            final int endVendorId;
+            if (isRange) {
+                endVendorId = bits.getInt(currentOffset, VENDOR_ID_SIZE);
+                currentOffset += VENDOR_ID_SIZE;
+                ByteBufferBackedVendorConsent.validate(startVendorId, endVendorId, maxVendorId);
+            } else {
+                endVendorId = startVendorId;
+                ByteBufferBackedVendorConsent.validate(startVendorId, maxVendorId);
+            }
+            entries[i] = ((long) startVendorId << 32) | endVendorId;
+        }
+        Arrays.sort(entries);
+
+        // Merge overlapping and adjacent entries
+        final int[] starts = new int[numEntries];
+        final int[] ends = new int[numEntries];
+        int size = 0;
+        for (long entry : entries) {
+            final int start = (int) (entry >>> 32);
+            final int end = (int) entry;
+            if (size > 0 && start <= ends[size - 1] + 1) {
+                ends[size - 1] = Math.max(ends[size - 1], end);
+            } else {
+                starts[size] = start;
+                ends[size] = end;
+                size++;
+            }
+        }
+        return new RangeSectionIndex(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    /**
+     * @return number of disjoint intervals in the index
+     */
+    int size() {
+        return startVendorIds.length;
+    }
+
+    /**
+     * @param i interval number
+     * @return first vendor ID of the interval
+     */
+    int start(int i) {
+        return startVendorIds[i];
+    }
+
+    /**
+     * @param i interval number
+     * @return last vendor ID of the interval
+     */
+    int end(int i) {
+        return endVendorIds[i];
+    }
+
+    /**
+     * Check whether specified vendor ID is covered by a range entry
+     * @param vendorId vendor ID to check
+     * @return boolean value of vendor ID presence
+     */
+    boolean contains(int vendorId) {
+        final int i = indexOf(vendorId);
+        return i >= 0 && vendorId <= endVendorIds[i];
+    }
+
+    /**
+     * Check which of the vendor IDs are covered by a range entry. Sorted vendor IDs are merged with the intervals
+     * in a single pass, unsorted ones are binary searched.
+     * @param vendorIds vendor IDs to check
+     * @param defaultConsent when true results are inverted, so they hold consent rather than presence
+     * @param maxVendorId vendor IDs above it are reported as not allowed
+     * @param results array receiving the result for each vendor ID
+     */
+    void lookup(int[] vendorIds, boolean defaultConsent, int maxVendorId, boolean[] results) {
+        if (isSorted(vendorIds)) {
+            int interval = 0;
+            for (int i = 0; i < vendorIds.length; i++) {
+                final int vendorId = vendorIds[i];
+                while (interval < endVendorIds.length && endVendorIds[interval] < vendorId)
+                    interval++;
+                final boolean present = interval < endVendorIds.length && startVendorIds[interval] <= vendorId;
+                results[i] = vendorId >= 1 && vendorId <= maxVendorId && present != defaultConsent;
+            }
+        } else {
+            for (int i = 0; i < vendorIds.length; i++) {
+                final int vendorId = vendorIds[i];
+                results[i] = vendorId >= 1 && vendorId <= maxVendorId && contains(vendorId) != defaultConsent;
+            }
+        }
+    }
+
+    /**
+     * @param vendorIds vendor IDs
+     * @return true if vendor IDs are in ascending order
+     */
+    static boolean isSorted(int[] vendorIds) {
+        for (int i = 1; i < vendorIds.length; i++) {
+            if (vendorIds[i] < vendorIds[i - 1]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param vendorId vendor ID
+     * @return number of the last interval starting at or before the vendor ID, -1 if there is none
+     */
+    int indexOf(int vendorId) {
+        int low = 0;
+        int high = startVendorIds.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (startVendorIds[mid] <= vendorId)
+                low = mid + 1;
+            else
+                high = mid - 1;
+        }
+        return high;
+    }
+}
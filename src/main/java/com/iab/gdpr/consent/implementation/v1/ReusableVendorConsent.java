@@ -0,0 +1,122 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.WebSafeBase64;
+import com.iab.gdpr.consent.ConsentStatus;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentValidator;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Resettable implementation of {@link VendorConsent} that decodes consent strings into a scratch buffer it owns.
+ * Each {@link #reset(CharSequence)} decodes the websafe Base64 directly into that buffer and rebinds this object
+ * in place, so decoding in a loop allocates nothing once the object is created. Fields are parsed on demand as in
+ * {@link ByteBufferBackedVendorConsent}.
+ *
+ * Instances are not thread safe and the decoded values are only valid until the next reset. Keep one instance per
+ * thread, and decode with {@link com.iab.gdpr.consent.VendorConsentDecoder} when a consent has to be retained.
+ *
+ */
+public class ReusableVendorConsent extends ByteBufferBackedVendorConsent {
+
+    /**
+     * Largest valid version 1 consent string in bytes: range encoding with the maximum number of start/end entries
+     */
+    public static final int MAX_CONSENT_BYTES = (RANGE_ENTRY_OFFSET + ((1 << NUM_ENTRIES_SIZE) - 1) * (1 + 2 * VENDOR_ID_SIZE) + 7) / 8;
+
+    private final byte[] buffer;
+    private final Bits bits;
+
+    public ReusableVendorConsent() {
+        this(new byte[MAX_CONSENT_BYTES]);
+    }
+
+    private ReusableVendorConsent(byte[] buffer) {
+        this(buffer, new Bits(buffer).limit(0));
+    }
+
+    private ReusableVendorConsent(byte[] buffer, Bits bits) {
+        super(bits);
+        this.buffer = buffer;
+        this.bits = bits;
+    }
+
+    /**
+     * Decode websafe Base64 consent string into this object
+     * @param consentString websafe Base64 consent string
+     * @return this object holding the decoded consent
+     * @throws IllegalArgumentException if consent string is null, empty, not valid websafe Base64 or longer than
+     *                                  {@link #MAX_CONSENT_BYTES} when decoded
+     * @throws IllegalStateException if consent string version is not supported
+     */
+    public ReusableVendorConsent reset(CharSequence consentString) {
+        if (consentString == null || consentString.length() == 0)
+            throw new IllegalArgumentException("Null or empty consent string passed as an argument");
+
+        bits.limit(0);
+        clearFingerprint();
+        return bind(WebSafeBase64.decode(consentString, buffer));
+    }
+
+    /**
+     * Decode websafe Base64 consent string into this object without throwing for bad input. The consent string is
+     * checked with {@link VendorConsentValidator}, and this object holds no consent unless it is valid.
+     * @param consentString websafe Base64 consent string
+     * @return {@link ConsentStatus#VALID} when this object holds the decoded consent, the problem found otherwise
+     */
+    public ConsentStatus tryReset(CharSequence consentString) {
+        bits.limit(0);
+        clearFingerprint();
+        if (consentString == null || consentString.length() == 0)
+            return ConsentStatus.EMPTY;
+        if ((long) WebSafeBase64.unpaddedLength(consentString) * 6 / 8 > buffer.length)
+            return ConsentStatus.TOO_LONG;
+
+        final int length = WebSafeBase64.tryDecode(consentString, buffer);
+        if (length < 0)
+            return ConsentStatus.INVALID_BASE64;
+
+        bits.limit(length);
+        final ConsentStatus status = VendorConsentValidator.validate(bits);
+        if (status != ConsentStatus.VALID) bits.limit(0);
+        return status;
+    }
+
+    /**
+     * Decode websafe Base64 consent string held as ASCII bytes into this object, for example a line read from a file
+     * @param src array holding ASCII encoded websafe Base64 consent string
+     * @param offset index of the first character
+     * @param length number of characters, including any padding
+     * @return this object holding the decoded consent
+     * @throws IllegalArgumentException if consent string is empty, not valid websafe Base64 or longer than
+     *                                  {@link #MAX_CONSENT_BYTES} when decoded
+     * @throws IllegalStateException if consent string version is not supported
+     */
+    public ReusableVendorConsent reset(byte[] src, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > src.length)
+            throw new IndexOutOfBoundsException("Invalid offset " + offset + " and length " + length + " for " + src.length + " bytes");
+
+        bits.limit(0);
+        clearFingerprint();
+        return bind(WebSafeBase64.decode(src, offset, length, buffer));
+    }
+
+    /**
+     * Bind this object to the first length bytes of the scratch buffer, checking the version
+     * @param length number of decoded bytes
+     * @return this object
+     */
+    private ReusableVendorConsent bind(int length) {
+        if (length == 0)
+            throw new IllegalArgumentException("Null or empty consent bytes passed as an argument");
+
+        bits.limit(length);
+        final int version = getVersion();
+        if (version != 1) {
+            bits.limit(0);
+            throw new IllegalStateException("Unsupported version: " + version);
+        }
+        return this;
+    }
+}
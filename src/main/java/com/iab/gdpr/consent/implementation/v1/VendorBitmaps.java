@@ -0,0 +1,98 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.BitSource;
+import com.iab.gdpr.consent.IdBitmap;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Normalization of the vendor section of either encoding into a bitmap of allowed vendors, where bit
+ * (vendorId - 1) of the words is set when the vendor is allowed
+ */
+final class VendorBitmaps {
+
+    private VendorBitmaps() {
+    }
+
+    /**
+     * Decode vendor section of either encoding into a bitmap of allowed vendors
+     * @param bits consent string bits
+     * @param maxVendorId max vendor ID
+     * @param encodingType 0=BitField 1=Range
+     * @return bitmap of allowed vendors
+     * @throws VendorConsentParseException if vendor section is truncated or range entries are invalid
+     */
+    static long[] decode(BitSource bits, int maxVendorId, int encodingType) throws VendorConsentParseException {
+        if (encodingType == VENDOR_ENCODING_RANGE) {
+            return fromRanges(RangeSectionIndex.parse(bits, maxVendorId), bits.getBit(DEFAULT_CONSENT_OFFSET), maxVendorId);
+        }
+
+        // Bit field has vendor 1 as the most significant bit, reverse each word so vendor 1 is bit 0
+        final long[] words = new long[IdBitmap.wordsFor(maxVendorId)];
+        for (int i = 0; i < words.length; i++) {
+            final int wordSize = Math.min(Long.SIZE, maxVendorId - (i << 6));
+            final long bitField = bits.getLong(VENDOR_BITFIELD_OFFSET + (i << 6), wordSize);
+            words[i] = Long.reverse(bitField << (Long.SIZE - wordSize));
+        }
+        return words;
+    }
+
+    /**
+     * Build bitmap of allowed vendors from parsed range section
+     * @param rangeSection parsed range section
+     * @param defaultConsent default consent for vendors not covered by range entries
+     * @param maxVendorId max vendor ID
+     * @return bitmap of allowed vendors
+     */
+    static long[] fromRanges(RangeSectionIndex rangeSection, boolean defaultConsent, int maxVendorId) {
+        final long[] words = new long[IdBitmap.wordsFor(maxVendorId)];
+        if (defaultConsent && maxVendorId > 0) {
+            setRange(words, 1, maxVendorId);
+        }
+        for (int i = 0; i < rangeSection.size(); i++) {
+            // Vendor ID 0 is not a valid vendor and is ignored
+            if (rangeSection.end(i) < 1) continue;
+            final int startVendorId = Math.max(1, rangeSection.start(i));
+            if (defaultConsent)
+                clearRange(words, startVendorId, rangeSection.end(i));
+            else
+                setRange(words, startVendorId, rangeSection.end(i));
+        }
+        return words;
+    }
+
+    static void setRange(long[] words, int startVendorId, int endVendorId) {
+        final int from = startVendorId - 1;
+        final int to = endVendorId; // exclusive
+        final int firstWord = from >>> 6;
+        final int lastWord = (to - 1) >>> 6;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++)
+            words[i] = -1L;
+        words[lastWord] |= lastMask;
+    }
+
+    static void clearRange(long[] words, int startVendorId, int endVendorId) {
+        final int from = startVendorId - 1;
+        final int to = endVendorId; // exclusive
+        final int firstWord = from >>> 6;
+        final int lastWord = (to - 1) >>> 6;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[firstWord] &= ~firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++)
+            words[i] = 0;
+        words[lastWord] &= ~lastMask;
+    }
+}
@@ -1,8 +1,9 @@
 package com.iab.gdpr.consent.implementation.v1;
 
+import com.iab.gdpr.BitWriter;
 import com.iab.gdpr.Bits;
-import com.iab.gdpr.GdprConstants;
 import com.iab.gdpr.Purpose;
+import com.iab.gdpr.consent.IdBitmap;
 import com.iab.gdpr.consent.range.RangeEntry;
 import com.iab.gdpr.consent.VendorConsent;
 import com.iab.gdpr.exception.VendorConsentCreateException;
@@ -32,7 +33,9 @@ public class VendorConsentBuilder {
     private Set<Integer> allowedPurposes = new HashSet<>(PURPOSES_SIZE);
     private Set<Integer> vendorsBitField; // used when bit field encoding is used
     private List<RangeEntry> rangeEntries; // used when range entry encoding is used
+    private int[] rangeVendorIds; // sorted, used instead of range entries when set
     private boolean defaultConsent;
+    private IdBitmap allowedVendors; // used when encoding is chosen by the builder
 
     /**
      * With creation date
@@ -172,6 +175,26 @@ public class VendorConsentBuilder {
      */
     public VendorConsentBuilder withRangeEntries(List<RangeEntry> rangeEntries) {
         this.rangeEntries = rangeEntries;
+        this.rangeVendorIds = null;
+        return this;
+    }
+
+    /**
+     * With range entries given as the VendorIds they cover. Runs of consecutive VendorIds are written as range
+     * entries directly, without creating {@link RangeEntry} objects. Encoding takes linear time for VendorIds in
+     * ascending order; other input is sorted first.
+     * @param rangeVendorIds VendorIds in any order whose consent is the opposite of DefaultConsent, copied by this
+     *                       method
+     * @return builder
+     */
+    public VendorConsentBuilder withRangeVendorIds(int... rangeVendorIds) {
+        Objects.requireNonNull(rangeVendorIds, "Argument rangeVendorIds is null");
+
+        // Copied so later changes to the caller's array do not affect the builder
+        final int[] sorted = rangeVendorIds.clone();
+        if (!RangeSectionIndex.isSorted(sorted)) Arrays.sort(sorted);
+        this.rangeVendorIds = sorted;
+        this.rangeEntries = null;
         return this;
     }
 
@@ -185,6 +208,18 @@ public class VendorConsentBuilder {
         return this;
     }
 
+    /**
+     * With allowed vendors, encoded with whichever of bit field or range encoding gives the shortest consent string.
+     * Range encoding uses the default consent needing the smaller range section. When set, vendor encoding type,
+     * bit field, range entries and default consent are ignored.
+     * @param allowedVendors bitmap of VendorIds for which the vendors have consent, IDs above max vendor ID are ignored
+     * @return builder
+     */
+    public VendorConsentBuilder withAllowedVendors(IdBitmap allowedVendors) {
+        this.allowedVendors = Objects.requireNonNull(allowedVendors, "Argument allowedVendors is null");
+        return this;
+    }
+
     /**
      * Validate supplied values and build {@link VendorConsent} object
      * @return vendor consent object
@@ -201,17 +236,39 @@ public class VendorConsentBuilder {
         if (maxVendorId <=0 )
             throw new VendorConsentCreateException("Invalid value for maxVendorId:" + maxVendorId);
 
-        // For range encoding, check if each range entry is valid
-        if (vendorEncodingType == VENDOR_ENCODING_RANGE) {
-            Objects.requireNonNull(rangeEntries, "Range entries must be set");
-            final boolean invalidRangeEntriesFound = rangeEntries.stream().anyMatch(rangeEntry -> !rangeEntry.valid(maxVendorId));
-            if (invalidRangeEntriesFound) throw new VendorConsentCreateException("Invalid range entries found");
-        }
+        int encodingType = vendorEncodingType;
+        boolean rangeDefaultConsent = defaultConsent;
+        final long[] vendorWords = allowedVendors == null ? null : allowedVendors.toLongArray();
 
         // Calculate size of bit buffer in bits
-        final int bitBufferSizeInBits;
-        if (vendorEncodingType == VENDOR_ENCODING_RANGE) {
-            final int rangeEntrySectionSize = rangeEntries.stream().mapToInt(RangeEntry::size).sum();
+        int bitBufferSizeInBits;
+        if (vendorWords != null) {
+            // Start with bit field and switch to range encoding with either default consent when it is shorter
+            encodingType = VENDOR_ENCODING_BIT_FIELD;
+            bitBufferSizeInBits = VENDOR_BITFIELD_OFFSET + maxVendorId;
+            for (boolean candidateDefaultConsent : new boolean[] { false, true }) {
+                final int entriesSize = VendorRanges.entriesSize(vendorWords, maxVendorId, candidateDefaultConsent);
+                if (entriesSize >= 0 && RANGE_ENTRY_OFFSET + entriesSize < bitBufferSizeInBits) {
+                    encodingType = VENDOR_ENCODING_RANGE;
+                    rangeDefaultConsent = candidateDefaultConsent;
+                    bitBufferSizeInBits = RANGE_ENTRY_OFFSET + entriesSize;
+                }
+            }
+        } else if (encodingType == VENDOR_ENCODING_RANGE && rangeVendorIds != null) {
+            final int length = rangeVendorIds.length;
+            if (length > 0 && (rangeVendorIds[0] < 1 || rangeVendorIds[length - 1] > maxVendorId))
+                throw new VendorConsentCreateException("Invalid range entries found");
+            final int rangeEntrySectionSize = VendorRanges.entriesSize(rangeVendorIds);
+            if (rangeEntrySectionSize < 0) throw new VendorConsentCreateException("Too many range entries");
+            bitBufferSizeInBits = RANGE_ENTRY_OFFSET + rangeEntrySectionSize;
+        } else if (encodingType == VENDOR_ENCODING_RANGE) {
+            // Check if each range entry is valid while adding up their sizes
+            Objects.requireNonNull(rangeEntries, "Range entries must be set");
+            int rangeEntrySectionSize = 0;
+            for (RangeEntry rangeEntry : rangeEntries) {
+                if (!rangeEntry.valid(maxVendorId)) throw new VendorConsentCreateException("Invalid range entries found");
+                rangeEntrySectionSize += rangeEntry.size();
+            }
             bitBufferSizeInBits = RANGE_ENTRY_OFFSET + rangeEntrySectionSize;
         } else {
             bitBufferSizeInBits = VENDOR_BITFIELD_OFFSET + this.maxVendorId;
@@ -222,52 +279,59 @@ public class VendorConsentBuilder {
         final Bits bits = new Bits(new byte[bitBufferSizeInBits / 8 + (bitsFit ? 0 : 1)]);
 
         // Set fields in bit buffer
-        bits.setInt(VERSION_BIT_OFFSET, VERSION_BIT_SIZE, VERSION);
-        bits.setInstantToEpochDeciseconds(CREATED_BIT_OFFSET, CREATED_BIT_SIZE, consentRecordCreated);
-        bits.setInstantToEpochDeciseconds(UPDATED_BIT_OFFSET, UPDATED_BIT_SIZE, consentRecordLastUpdated);
-        bits.setInt(CMP_ID_OFFSET, CMP_ID_SIZE, this.cmpID);
-        bits.setInt(CMP_VERSION_OFFSET, CMP_VERSION_SIZE, cmpVersion);
-        bits.setInt(CONSENT_SCREEN_SIZE_OFFSET, CONSENT_SCREEN_SIZE, consentScreenID);
-        bits.setSixBitString(CONSENT_LANGUAGE_OFFSET, CONSENT_LANGUAGE_SIZE, consentLanguage);
-        bits.setInt(VENDOR_LIST_VERSION_OFFSET, VENDOR_LIST_VERSION_SIZE, vendorListVersion);
-
-        // Set purposes bits
-        for (int i = 0; i < PURPOSES_SIZE; i++) {
-            if (allowedPurposes.contains(i+1))
-                bits.setBit(PURPOSES_OFFSET + i);
-            else
-                bits.unsetBit(PURPOSES_OFFSET + i);
-        }
-
-        bits.setInt(MAX_VENDOR_ID_OFFSET, MAX_VENDOR_ID_SIZE, maxVendorId);
-        bits.setInt(ENCODING_TYPE_OFFSET, ENCODING_TYPE_SIZE, vendorEncodingType);
+        final BitWriter writer = new BitWriter(bits, VERSION_BIT_OFFSET)
+                .writeInt(VERSION_BIT_SIZE, VERSION)
+                .writeInstantAsEpochDeciseconds(CREATED_BIT_SIZE, consentRecordCreated)
+                .writeInstantAsEpochDeciseconds(UPDATED_BIT_SIZE, consentRecordLastUpdated)
+                .writeInt(CMP_ID_SIZE, this.cmpID)
+                .writeInt(CMP_VERSION_SIZE, cmpVersion)
+                .writeInt(CONSENT_SCREEN_SIZE, consentScreenID)
+                .writeSixBitString(CONSENT_LANGUAGE_SIZE, consentLanguage)
+                .writeInt(VENDOR_LIST_VERSION_SIZE, vendorListVersion)
+                .writeInt(PURPOSES_SIZE, purposesBits())
+                .writeInt(MAX_VENDOR_ID_SIZE, maxVendorId)
+                .writeInt(ENCODING_TYPE_SIZE, encodingType);
 
         // Set the bit field or range sections
-        if (vendorEncodingType == VENDOR_ENCODING_RANGE) {
+        if (vendorWords != null && encodingType == VENDOR_ENCODING_RANGE) {
+            VendorRanges.write(writer, vendorWords, maxVendorId, rangeDefaultConsent);
+        } else if (vendorWords != null) {
+            // Bit field encoding, buffer is zeroed so only allowed vendors need to be set
+            allowedVendors.forEach(vendorId -> {
+                if (vendorId <= maxVendorId)
+                    bits.setBit(VENDOR_BITFIELD_OFFSET + vendorId - 1);
+            });
+        } else if (encodingType == VENDOR_ENCODING_RANGE && rangeVendorIds != null) {
+            VendorRanges.write(writer, bits, rangeVendorIds, rangeDefaultConsent);
+        } else if (encodingType == VENDOR_ENCODING_RANGE) {
             // Range encoding
-            if (defaultConsent) {
-                bits.setBit(DEFAULT_CONSENT_OFFSET);
-            } else {
-                bits.unsetBit(DEFAULT_CONSENT_OFFSET);
-            }
-            bits.setInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE, rangeEntries.size());
-
-            int currentOffset = GdprConstants.RANGE_ENTRY_OFFSET;
+            writer.writeBit(rangeDefaultConsent)
+                    .writeInt(NUM_ENTRIES_SIZE, rangeEntries.size());
 
             for (RangeEntry rangeEntry : rangeEntries) {
-                currentOffset = rangeEntry.appendTo(bits, currentOffset);
+                rangeEntry.appendTo(writer);
             }
 
         } else {
-            // Bit field encoding
-            for (int i = 0; i < maxVendorId; i++) {
-                if (vendorsBitField.contains(i+1))
-                    bits.setBit(VENDOR_BITFIELD_OFFSET+i);
-                else
-                    bits.unsetBit(VENDOR_BITFIELD_OFFSET + i);
+            // Bit field encoding, buffer is zeroed so only allowed vendors need to be set
+            for (Integer vendorId : vendorsBitField) {
+                if (vendorId != null && vendorId > 0 && vendorId <= maxVendorId)
+                    bits.setBit(VENDOR_BITFIELD_OFFSET + vendorId - 1);
             }
         }
 
         return new ByteBufferBackedVendorConsent(bits);
     }
+
+    /**
+     * @return allowed purposes as a bitmap where purpose 1 is the most significant of PURPOSES_SIZE bits
+     */
+    private int purposesBits() {
+        int purposesBits = 0;
+        for (Integer purposeId : allowedPurposes) {
+            if (purposeId != null && purposeId > 0 && purposeId <= PURPOSES_SIZE)
+                purposesBits |= 1 << (PURPOSES_SIZE - purposeId);
+        }
+        return purposesBits;
+    }
 }
@@ -0,0 +1,349 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.Purpose;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.exception.VendorConsentCreateException;
+import com.iab.gdpr.exception.VendorConsentParseException;
+
+import java.time.Instant;
+import java.util.Objects;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Derives an updated version 1 vendor consent from an existing one by applying changes to a copy of its bits,
+ * instead of supplying every value to {@link VendorConsentBuilder} again.
+ *
+ * Header fields, purposes and bit field encoded vendors are patched in place. For range encoding, only the range
+ * entries at or next to the changed vendor are rewritten, and the bits after them are shifted when an entry grows,
+ * shrinks, is added or removed. If a change needs more range entries than the range section can hold, the vendor
+ * section is converted to a bit field.
+ *
+ * The bits are copied on the first change after the mutator is created and after every {@link #build()}, so
+ * neither the source consent nor consents built earlier are ever modified. Instances are not thread safe.
+ *
+ */
+public class VendorConsentMutator {
+    private static final int COPY_CHUNK_SIZE = Long.SIZE - 1;
+
+    private Bits bits;
+    // true while the bits belong to the source consent or to a built consent
+    private boolean shared;
+    // end of the vendor section in bits
+    private int size;
+    private final int maxVendorId;
+    private int encodingType;
+    private int numEntries; // used when range entry encoding is used
+
+    /**
+     * @param vendorConsent version 1 consent to derive from, left unchanged
+     * @throws IllegalStateException if consent string version is not supported
+     * @throws VendorConsentParseException if the consent string is truncated or the range section is invalid
+     */
+    public VendorConsentMutator(VendorConsent vendorConsent) throws VendorConsentParseException {
+        Objects.requireNonNull(vendorConsent, "Argument vendorConsent is null");
+
+        this.bits = new Bits(vendorConsent.toByteArray());
+        this.shared = true;
+
+        final int version = bits.getInt(VERSION_BIT_OFFSET, VERSION_BIT_SIZE);
+        if (version != 1)
+            throw new IllegalStateException("Unsupported version: " + version);
+
+        this.maxVendorId = bits.getInt(MAX_VENDOR_ID_OFFSET, MAX_VENDOR_ID_SIZE);
+        this.encodingType = bits.getInt(ENCODING_TYPE_OFFSET, ENCODING_TYPE_SIZE);
+        if (encodingType == VENDOR_ENCODING_RANGE) {
+            this.numEntries = bits.getInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE);
+            int offset = RANGE_ENTRY_OFFSET;
+            for (int i = 0; i < numEntries; i++) {
+                final int startVendorId = entryStart(offset);
+                final int endVendorId = entryEnd(offset);
+                ByteBufferBackedVendorConsent.validate(startVendorId, endVendorId, maxVendorId);
+                offset += entrySize(startVendorId, endVendorId);
+            }
+            this.size = offset;
+        } else {
+            this.size = VENDOR_BITFIELD_OFFSET + maxVendorId;
+            final int bitFieldBytes = (size + 7) >>> 3;
+            if (bits.limit() < bitFieldBytes)
+                throw new VendorConsentParseException("Bit field of " + maxVendorId + " vendors needs " + bitFieldBytes
+                        + " bytes, but consent string has only " + bits.limit() + " bytes");
+        }
+    }
+
+    /**
+     * With update date
+     * @param consentRecordLastUpdated Epoch deciseconds when consent string was last updated
+     * @return mutator
+     */
+    public VendorConsentMutator withConsentRecordLastUpdatedOn(Instant consentRecordLastUpdated) {
+        Objects.requireNonNull(consentRecordLastUpdated, "Argument consentRecordLastUpdated is null");
+
+        ensureWritable();
+        bits.setInstantToEpochDeciseconds(UPDATED_BIT_OFFSET, UPDATED_BIT_SIZE, consentRecordLastUpdated);
+        return this;
+    }
+
+    /**
+     * With vendor list version
+     * @param vendorListVersion version of vendor list used in most recent consent string update.
+     * @return mutator
+     */
+    public VendorConsentMutator withVendorListVersion(int vendorListVersion) {
+        if (vendorListVersion <= 0)
+            throw new VendorConsentCreateException("Invalid value for vendorListVersion:" + vendorListVersion);
+
+        ensureWritable();
+        bits.setInt(VENDOR_LIST_VERSION_OFFSET, VENDOR_LIST_VERSION_SIZE, vendorListVersion);
+        return this;
+    }
+
+    /**
+     * With purpose allowed or not allowed
+     * @param purposeId purpose ID
+     * @param allowed whether purpose is allowed
+     * @return mutator
+     */
+    public VendorConsentMutator withPurposeAllowed(int purposeId, boolean allowed) {
+        if (purposeId < 1 || purposeId > PURPOSES_SIZE)
+            throw new IllegalArgumentException("Invalid value for purposeId:" + purposeId);
+
+        setBit(PURPOSES_OFFSET + purposeId - 1, allowed);
+        return this;
+    }
+
+    /**
+     * With purpose allowed or not allowed
+     * @param purpose purpose
+     * @param allowed whether purpose is allowed
+     * @return mutator
+     */
+    public VendorConsentMutator withPurposeAllowed(Purpose purpose, boolean allowed) {
+        Objects.requireNonNull(purpose, "Argument purpose is null");
+        return withPurposeAllowed(purpose.getId(), allowed);
+    }
+
+    /**
+     * With vendor allowed or not allowed
+     * @param vendorId vendor ID, between 1 and MaxVendorId of the consent
+     * @param allowed whether vendor is allowed
+     * @return mutator
+     */
+    public VendorConsentMutator withVendorAllowed(int vendorId, boolean allowed) {
+        if (vendorId < 1 || vendorId > maxVendorId)
+            throw new VendorConsentCreateException("Invalid value for vendorId:" + vendorId);
+
+        if (encodingType == VENDOR_ENCODING_RANGE) {
+            final boolean defaultConsent = bits.getBit(DEFAULT_CONSENT_OFFSET);
+            if (allowed != defaultConsent)
+                addToRange(vendorId);
+            else
+                removeFromRange(vendorId);
+        }
+        // Range section may have been converted to a bit field
+        if (encodingType == VENDOR_ENCODING_BIT_FIELD) {
+            setBit(VENDOR_BITFIELD_OFFSET + vendorId - 1, allowed);
+        }
+        return this;
+    }
+
+    /**
+     * Build {@link VendorConsent} object from the current bits. Further changes are applied to a copy.
+     * @return vendor consent object
+     */
+    public VendorConsent build() {
+        shared = true;
+        return new ByteBufferBackedVendorConsent(new Bits(bits.toByteArray()));
+    }
+
+    /**
+     * Cover the vendor ID by a range entry, extending or merging the entries next to it when there are any
+     * @param vendorId vendor ID
+     */
+    private void addToRange(int vendorId) {
+        int before = -1;
+        int after = -1;
+        int offset = RANGE_ENTRY_OFFSET;
+        for (int i = 0; i < numEntries; i++) {
+            final int startVendorId = entryStart(offset);
+            final int endVendorId = entryEnd(offset);
+            if (startVendorId <= vendorId && vendorId <= endVendorId) return;
+            if (endVendorId == vendorId - 1) before = offset;
+            if (startVendorId == vendorId + 1) after = offset;
+            offset += entrySize(startVendorId, endVendorId);
+        }
+
+        if (before >= 0 && after >= 0) {
+            // Remove the later entry first so the offset of the earlier one stays valid
+            final int startVendorId = entryStart(before);
+            final int endVendorId = entryEnd(after);
+            replaceEntry(Math.max(before, after), 1, 0);
+            replaceEntry(Math.min(before, after), startVendorId, endVendorId);
+            numEntries--;
+        } else if (before >= 0) {
+            replaceEntry(before, entryStart(before), vendorId);
+        } else if (after >= 0) {
+            replaceEntry(after, vendorId, entryEnd(after));
+        } else if (numEntries < VendorRanges.MAX_ENTRIES) {
+            insertEntry(size, vendorId, vendorId);
+            numEntries++;
+        } else {
+            convertToBitField();
+            return;
+        }
+        bits.setInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE, numEntries);
+    }
+
+    /**
+     * Remove the vendor ID from every range entry covering it, shrinking, removing or splitting the entries
+     * @param vendorId vendor ID
+     */
+    private void removeFromRange(int vendorId) {
+        int offset = RANGE_ENTRY_OFFSET;
+        int i = 0;
+        boolean changed = false;
+        while (i < numEntries) {
+            final int startVendorId = entryStart(offset);
+            final int endVendorId = entryEnd(offset);
+            if (vendorId < startVendorId || vendorId > endVendorId) {
+                offset += entrySize(startVendorId, endVendorId);
+                i++;
+            } else if (startVendorId < vendorId && vendorId < endVendorId) {
+                if (numEntries == VendorRanges.MAX_ENTRIES) {
+                    convertToBitField();
+                    return;
+                }
+                // Split the entry, inserting the part after the vendor ID first
+                insertEntry(offset + entrySize(startVendorId, endVendorId), vendorId + 1, endVendorId);
+                replaceEntry(offset, startVendorId, vendorId - 1);
+                offset += entrySize(startVendorId, vendorId - 1) + entrySize(vendorId + 1, endVendorId);
+                numEntries++;
+                i += 2;
+                changed = true;
+            } else {
+                // Vendor ID is at either end of the entry, which is removed when it covers only the vendor ID
+                final int newStartVendorId = startVendorId == vendorId ? vendorId + 1 : startVendorId;
+                final int newEndVendorId = endVendorId == vendorId ? vendorId - 1 : endVendorId;
+                replaceEntry(offset, newStartVendorId, newEndVendorId);
+                if (newStartVendorId > newEndVendorId) {
+                    numEntries--;
+                } else {
+                    offset += entrySize(newStartVendorId, newEndVendorId);
+                    i++;
+                }
+                changed = true;
+            }
+        }
+        if (changed) bits.setInt(NUM_ENTRIES_OFFSET, NUM_ENTRIES_SIZE, numEntries);
+    }
+
+    /**
+     * Replace the vendor section with a bit field holding the vendors allowed by the range section
+     */
+    private void convertToBitField() {
+        final long[] words = VendorBitmaps.decode(bits, maxVendorId, VENDOR_ENCODING_RANGE);
+        final int newSize = VENDOR_BITFIELD_OFFSET + maxVendorId;
+        final Bits target = new Bits(new byte[(newSize + 7) >>> 3]);
+        copyBits(bits, 0, target, 0, ENCODING_TYPE_OFFSET);
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                target.setBit(VENDOR_BITFIELD_OFFSET + (i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        bits = target;
+        shared = false;
+        size = newSize;
+        encodingType = VENDOR_ENCODING_BIT_FIELD;
+        numEntries = 0;
+    }
+
+    private int entryStart(int offset) {
+        return bits.getInt(offset + 1, VENDOR_ID_SIZE);
+    }
+
+    private int entryEnd(int offset) {
+        return bits.getBit(offset) ? bits.getInt(offset + 1 + VENDOR_ID_SIZE, VENDOR_ID_SIZE) : entryStart(offset);
+    }
+
+    /**
+     * @return size in bits of a range entry covering the vendor IDs, 0 if start is greater than end
+     */
+    private static int entrySize(int startVendorId, int endVendorId) {
+        if (startVendorId > endVendorId) return 0;
+        return startVendorId == endVendorId ? VendorRanges.SINGLE_ENTRY_SIZE : VendorRanges.START_END_ENTRY_SIZE;
+    }
+
+    /**
+     * Replace the range entry at offset, removing it if start is greater than end
+     */
+    private void replaceEntry(int offset, int startVendorId, int endVendorId) {
+        final int oldSize = entrySize(entryStart(offset), entryEnd(offset));
+        final int newSize = entrySize(startVendorId, endVendorId);
+        if (oldSize != newSize)
+            splice(offset, oldSize, newSize);
+        else
+            ensureWritable();
+        if (newSize > 0) writeEntry(offset, startVendorId, endVendorId);
+    }
+
+    private void insertEntry(int offset, int startVendorId, int endVendorId) {
+        splice(offset, 0, entrySize(startVendorId, endVendorId));
+        writeEntry(offset, startVendorId, endVendorId);
+    }
+
+    private void writeEntry(int offset, int startVendorId, int endVendorId) {
+        if (startVendorId == endVendorId) {
+            bits.unsetBit(offset);
+            bits.setInt(offset + 1, VENDOR_ID_SIZE, startVendorId);
+        } else {
+            bits.setBit(offset);
+            bits.setInt(offset + 1, VENDOR_ID_SIZE, startVendorId);
+            bits.setInt(offset + 1 + VENDOR_ID_SIZE, VENDOR_ID_SIZE, endVendorId);
+        }
+    }
+
+    /**
+     * Copy the bits into a new array, resizing the region at offset and shifting the bits after it
+     * @param offset start of the region
+     * @param oldSize size of the region in bits
+     * @param newSize new size of the region in bits, its contents are left for the caller to write
+     */
+    private void splice(int offset, int oldSize, int newSize) {
+        final int newTotalSize = size - oldSize + newSize;
+        final Bits target = new Bits(new byte[(newTotalSize + 7) >>> 3]);
+        copyBits(bits, 0, target, 0, offset);
+        copyBits(bits, offset + oldSize, target, offset + newSize, size - offset - oldSize);
+        bits = target;
+        shared = false;
+        size = newTotalSize;
+    }
+
+    private void setBit(int index, boolean value) {
+        if (bits.getBit(index) == value) return;
+        ensureWritable();
+        if (value)
+            bits.setBit(index);
+        else
+            bits.unsetBit(index);
+    }
+
+    private void ensureWritable() {
+        if (shared) {
+            bits = new Bits(bits.toByteArray().clone());
+            shared = false;
+        }
+    }
+
+    /**
+     * Copy bits between bit strings a long at a time
+     */
+    private static void copyBits(Bits from, int fromOffset, Bits to, int toOffset, int length) {
+        for (int copied = 0; copied < length; copied += COPY_CHUNK_SIZE) {
+            final int chunkSize = Math.min(COPY_CHUNK_SIZE, length - copied);
+            to.setLong(toOffset + copied, chunkSize, from.getLong(fromOffset + copied, chunkSize));
+        }
+    }
+}
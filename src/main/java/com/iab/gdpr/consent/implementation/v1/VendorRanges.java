@@ -0,0 +1,160 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.BitWriter;
+import com.iab.gdpr.Bits;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Range encoding of a bitmap of allowed vendors, where bit (vendorId - 1) of the words is set when the vendor is
+ * allowed, or of a sorted array of vendor IDs covered by range entries. Range entries cover the runs of vendors
+ * whose consent differs from the default consent, and are found by scanning the bitmap a word at a time or the
+ * array once. A run of one vendor is a single entry, longer runs are start/end entries, which is the smallest
+ * range section for the given default consent.
+ */
+final class VendorRanges {
+    // One bit for SingleOrRange flag, and one or two vendor IDs
+    static final int SINGLE_ENTRY_SIZE = 1 + VENDOR_ID_SIZE;
+    static final int START_END_ENTRY_SIZE = 1 + 2 * VENDOR_ID_SIZE;
+    static final int MAX_ENTRIES = (1 << NUM_ENTRIES_SIZE) - 1;
+
+    private VendorRanges() {
+    }
+
+    /**
+     * @param words bitmap of allowed vendors
+     * @param maxVendorId max vendor ID, vendors above it are ignored
+     * @param defaultConsent default consent for vendors not covered by a range entry
+     * @return number of range entries
+     */
+    static int entryCount(long[] words, int maxVendorId, boolean defaultConsent) {
+        int count = 0;
+        for (int start = next(words, !defaultConsent, 1, maxVendorId); start <= maxVendorId; ) {
+            final int end = next(words, defaultConsent, start + 1, maxVendorId) - 1;
+            count++;
+            start = next(words, !defaultConsent, end + 1, maxVendorId);
+        }
+        return count;
+    }
+
+    /**
+     * @param words bitmap of allowed vendors
+     * @param maxVendorId max vendor ID, vendors above it are ignored
+     * @param defaultConsent default consent for vendors not covered by a range entry
+     * @return size in bits of the range entries, excluding default consent and number of entries, or -1 if there are
+     * more entries than a range section can hold
+     */
+    static int entriesSize(long[] words, int maxVendorId, boolean defaultConsent) {
+        int size = 0;
+        int count = 0;
+        for (int start = next(words, !defaultConsent, 1, maxVendorId); start <= maxVendorId; ) {
+            final int end = next(words, defaultConsent, start + 1, maxVendorId) - 1;
+            size += start == end ? SINGLE_ENTRY_SIZE : START_END_ENTRY_SIZE;
+            if (++count > MAX_ENTRIES) return -1;
+            start = next(words, !defaultConsent, end + 1, maxVendorId);
+        }
+        return size;
+    }
+
+    /**
+     * Write default consent, number of entries and range entries
+     * @param writer bit writer positioned at the default consent bit
+     * @param words bitmap of allowed vendors
+     * @param maxVendorId max vendor ID, vendors above it are ignored
+     * @param defaultConsent default consent for vendors not covered by a range entry
+     */
+    static void write(BitWriter writer, long[] words, int maxVendorId, boolean defaultConsent) {
+        writer.writeBit(defaultConsent)
+                .writeInt(NUM_ENTRIES_SIZE, entryCount(words, maxVendorId, defaultConsent));
+        for (int start = next(words, !defaultConsent, 1, maxVendorId); start <= maxVendorId; ) {
+            final int end = next(words, defaultConsent, start + 1, maxVendorId) - 1;
+            if (start == end) {
+                writer.writeBit(false).writeInt(VENDOR_ID_SIZE, start);
+            } else {
+                writer.writeBit(true).writeInt(VENDOR_ID_SIZE, start).writeInt(VENDOR_ID_SIZE, end);
+            }
+            start = next(words, !defaultConsent, end + 1, maxVendorId);
+        }
+    }
+
+    /**
+     * @param vendorIds vendor IDs covered by range entries, in ascending order, duplicates allowed
+     * @return size in bits of the range entries, excluding default consent and number of entries, or -1 if there are
+     * more entries than a range section can hold
+     */
+    static int entriesSize(int[] vendorIds) {
+        int size = 0;
+        int count = 0;
+        for (int i = 0; i < vendorIds.length; ) {
+            final int start = i;
+            i = runEnd(vendorIds, i);
+            size += vendorIds[start] == vendorIds[i - 1] ? SINGLE_ENTRY_SIZE : START_END_ENTRY_SIZE;
+            if (++count > MAX_ENTRIES) return -1;
+        }
+        return size;
+    }
+
+    /**
+     * Write default consent, number of entries and range entries in one pass, filling in the number of entries
+     * once the entries are written
+     * @param writer bit writer positioned at the default consent bit
+     * @param bits bits the writer writes to
+     * @param vendorIds vendor IDs covered by range entries, in ascending order, duplicates allowed
+     * @param defaultConsent default consent for vendors not covered by a range entry
+     */
+    static void write(BitWriter writer, Bits bits, int[] vendorIds, boolean defaultConsent) {
+        writer.writeBit(defaultConsent);
+        final int numEntriesOffset = writer.position();
+        writer.writeInt(NUM_ENTRIES_SIZE, 0);
+        int count = 0;
+        for (int i = 0; i < vendorIds.length; ) {
+            final int start = i;
+            i = runEnd(vendorIds, i);
+            if (vendorIds[start] == vendorIds[i - 1]) {
+                writer.writeBit(false).writeInt(VENDOR_ID_SIZE, vendorIds[start]);
+            } else {
+                writer.writeBit(true).writeInt(VENDOR_ID_SIZE, vendorIds[start]).writeInt(VENDOR_ID_SIZE, vendorIds[i - 1]);
+            }
+            count++;
+        }
+        bits.setInt(numEntriesOffset, NUM_ENTRIES_SIZE, count);
+    }
+
+    /**
+     * @param vendorIds vendor IDs in ascending order
+     * @param from index of the first vendor ID of a run
+     * @return index after the last vendor ID of the run of consecutive or repeated vendor IDs
+     */
+    private static int runEnd(int[] vendorIds, int from) {
+        int i = from + 1;
+        while (i < vendorIds.length && vendorIds[i] - vendorIds[i - 1] <= 1) i++;
+        return i;
+    }
+
+    /**
+     * @param words bitmap of allowed vendors
+     * @param allowed whether to look for an allowed or a not allowed vendor
+     * @param fromVendorId vendor ID to start from
+     * @param maxVendorId max vendor ID
+     * @return the first vendor ID not smaller than fromVendorId whose consent is the specified one, or
+     * maxVendorId + 1 if there is none
+     */
+    static int next(long[] words, boolean allowed, int fromVendorId, int maxVendorId) {
+        if (fromVendorId > maxVendorId) return maxVendorId + 1;
+        int i = (fromVendorId - 1) >>> 6;
+        long word = word(words, i, allowed) & (-1L << (fromVendorId - 1));
+        while (word == 0) {
+            if (++i << 6 >= maxVendorId) return maxVendorId + 1;
+            word = word(words, i, allowed);
+        }
+        return Math.min((i << 6) + Long.numberOfTrailingZeros(word) + 1, maxVendorId + 1);
+    }
+
+    /**
+     * @return word i of the bitmap, inverted when looking for not allowed vendors
+     */
+    private static long word(long[] words, int i, boolean allowed) {
+        final long word = i < words.length ? words[i] : 0;
+        return allowed ? word : ~word;
+    }
+}
@@ -1,5 +1,6 @@
 package com.iab.gdpr.consent.range;
 
+import com.iab.gdpr.BitWriter;
 import com.iab.gdpr.Bits;
 
 /**
@@ -21,6 +22,14 @@ public interface RangeEntry {
      */
     int appendTo(Bits buffer, int currentOffset);
 
+    /**
+     * Append this range entry at the current position of the bit writer, advancing it past the entry
+     * @param writer bit writer
+     */
+    default void appendTo(BitWriter writer) {
+        writer.position(appendTo(writer.bits(), writer.position()));
+    }
+
     /**
      * Check if range entry is valid for the specified max vendor id
      * @param maxVendorId max vendor id
@@ -1,5 +1,6 @@
 package com.iab.gdpr.consent.range;
 
+import com.iab.gdpr.BitWriter;
 import com.iab.gdpr.Bits;
 
 import static com.iab.gdpr.GdprConstants.VENDOR_ID_SIZE;
@@ -22,11 +23,15 @@ public class SingleRangeEntry implements RangeEntry {
 
     @Override
     public int appendTo(Bits buffer, int currentOffset) {
-        int newOffset = currentOffset;
-        buffer.unsetBit(newOffset++); // 0=Single
-        buffer.setInt(newOffset, VENDOR_ID_SIZE, singeVendorId);
-        newOffset += VENDOR_ID_SIZE;
-        return newOffset;
+        final BitWriter writer = new BitWriter(buffer, currentOffset);
+        appendTo(writer);
+        return writer.position();
+    }
+
+    @Override
+    public void appendTo(BitWriter writer) {
+        writer.writeBit(false) // 0=Single
+                .writeInt(VENDOR_ID_SIZE, singeVendorId);
     }
 
     @Override
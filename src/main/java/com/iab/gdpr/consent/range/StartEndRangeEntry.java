@@ -1,5 +1,6 @@
 package com.iab.gdpr.consent.range;
 
+import com.iab.gdpr.BitWriter;
 import com.iab.gdpr.Bits;
 
 import static com.iab.gdpr.GdprConstants.VENDOR_ID_SIZE;
@@ -24,13 +25,16 @@ public class StartEndRangeEntry implements RangeEntry{
 
     @Override
     public int appendTo(Bits buffer, int currentOffset) {
-        int newOffset = currentOffset;
-        buffer.setBit(newOffset++); // 1=Range
-        buffer.setInt(newOffset, VENDOR_ID_SIZE, startVendorId);
-        newOffset += VENDOR_ID_SIZE;
-        buffer.setInt(newOffset, VENDOR_ID_SIZE, endVendorId);
-        newOffset += VENDOR_ID_SIZE;
-        return newOffset;
+        final BitWriter writer = new BitWriter(buffer, currentOffset);
+        appendTo(writer);
+        return writer.position();
+    }
+
+    @Override
+    public void appendTo(BitWriter writer) {
+        writer.writeBit(true) // 1=Range
+                .writeInt(VENDOR_ID_SIZE, startVendorId)
+                .writeInt(VENDOR_ID_SIZE, endVendorId);
     }
 
     @Override
@@ -0,0 +1,35 @@
+package com.iab.gdpr.consent.store;
+
+import static com.iab.gdpr.GdprConstants.*;
+
+/**
+ * Fixed width columns of a {@link ConsentStore}. Each column holds the raw value of one header field of the consent
+ * string, at the bit offset and size given in {@link com.iab.gdpr.GdprConstants}, in the smallest of 1, 2, 4 or
+ * 8 bytes that fits the field.
+ */
+public enum ConsentColumn {
+    VERSION(VERSION_BIT_OFFSET, VERSION_BIT_SIZE),
+    /** Epoch deciseconds */
+    CREATED(CREATED_BIT_OFFSET, CREATED_BIT_SIZE),
+    /** Epoch deciseconds */
+    LAST_UPDATED(UPDATED_BIT_OFFSET, UPDATED_BIT_SIZE),
+    CMP_ID(CMP_ID_OFFSET, CMP_ID_SIZE),
+    CMP_VERSION(CMP_VERSION_OFFSET, CMP_VERSION_SIZE),
+    CONSENT_SCREEN(CONSENT_SCREEN_SIZE_OFFSET, CONSENT_SCREEN_SIZE),
+    /** Two 6 bit letters, 'A' is 0 */
+    CONSENT_LANGUAGE(CONSENT_LANGUAGE_OFFSET, CONSENT_LANGUAGE_SIZE),
+    VENDOR_LIST_VERSION(VENDOR_LIST_VERSION_OFFSET, VENDOR_LIST_VERSION_SIZE),
+    /** Purpose 1 is the most significant of the 24 bits */
+    PURPOSES(PURPOSES_OFFSET, PURPOSES_SIZE),
+    MAX_VENDOR_ID(MAX_VENDOR_ID_OFFSET, MAX_VENDOR_ID_SIZE);
+
+    final int bitOffset;
+    final int bitSize;
+    final int width;
+
+    ConsentColumn(int bitOffset, int bitSize) {
+        this.bitOffset = bitOffset;
+        this.bitSize = bitSize;
+        this.width = bitSize <= 8 ? 1 : bitSize <= 16 ? 2 : bitSize <= 32 ? 4 : 8;
+    }
+}
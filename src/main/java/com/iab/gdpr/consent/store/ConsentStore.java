@@ -0,0 +1,230 @@
+package com.iab.gdpr.consent.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static com.iab.gdpr.GdprConstants.PURPOSES_SIZE;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Read only view of consents written by {@link ConsentStoreWriter}. The file is memory mapped and values are read
+ * straight from the mapped columns, so scans over millions of records run at disk or page cache speed without
+ * creating an object per record.
+ *
+ * Records are addressed by their index in the order they were written. Each column must fit into a single mapping,
+ * and the writer keeps each column in a single heap array, which limits a store to fewer than 2^27 records.
+ *
+ * Instances are safe for use by multiple threads.
+ */
+public final class ConsentStore implements Closeable {
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final FileChannel channel;
+    private final int size;
+    private final int maxVendorId;
+    private final int vendorWords;
+    private final int recordsPerChunk;
+    private final ByteBuffer[] vendorChunks;
+    private final ByteBuffer[] columns;
+
+    private ConsentStore(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        if (channel.size() < ConsentStoreWriter.HEADER_SIZE)
+            throw new IOException("Not a consent store");
+        final ByteBuffer header = map(0, ConsentStoreWriter.HEADER_SIZE);
+        if (header.getInt() != ConsentStoreWriter.MAGIC)
+            throw new IOException("Not a consent store");
+        final int formatVersion = header.getInt();
+        if (formatVersion != ConsentStoreWriter.FORMAT_VERSION)
+            throw new IOException("Unsupported consent store format version: " + formatVersion);
+        final long count = header.getLong();
+        if (count < 0 || count >= ConsentStoreWriter.RECORD_LIMIT)
+            throw new IOException("Consent store holds too many records: " + count);
+        this.size = (int) count;
+        this.maxVendorId = header.getInt();
+        this.vendorWords = header.getInt();
+        long position = header.getLong();
+
+        final ConsentColumn[] values = ConsentColumn.values();
+        this.columns = new ByteBuffer[values.length];
+        for (ConsentColumn column : values) {
+            final long length = (long) size * column.width;
+            columns[column.ordinal()] = map(position, length);
+            position = ConsentStoreWriter.align(position + length);
+        }
+
+        // Split vendor bitmaps into mappings of whole records
+        final int recordBytes = vendorWords * Long.BYTES;
+        this.recordsPerChunk = Integer.MAX_VALUE / recordBytes;
+        this.vendorChunks = new ByteBuffer[Math.max(1, (size + recordsPerChunk - 1) / recordsPerChunk)];
+        for (int i = 0; i < vendorChunks.length; i++) {
+            final int records = Math.min(recordsPerChunk, size - i * recordsPerChunk);
+            vendorChunks[i] = map(ConsentStoreWriter.HEADER_SIZE + (long) i * recordsPerChunk * recordBytes, (long) records * recordBytes);
+        }
+    }
+
+    /**
+     * @param path file written by {@link ConsentStoreWriter}
+     * @return store mapping the file
+     * @throws IOException if the file cannot be read or is not a consent store
+     */
+    public static ConsentStore open(Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, READ);
+        try {
+            return new ConsentStore(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return largest vendor ID the store can hold
+     */
+    public int getMaxVendorId() {
+        return maxVendorId;
+    }
+
+    /**
+     * @param column column to read
+     * @param record index of the record
+     * @return raw value of the consent string field
+     */
+    public long get(ConsentColumn column, int record) {
+        final ByteBuffer values = columns[column.ordinal()];
+        switch (column.width) {
+            case 1:
+                return values.get(record) & 0xFFL;
+            case 2:
+                return values.getShort(record * 2) & 0xFFFFL;
+            case 4:
+                return values.getInt(record * 4) & 0xFFFFFFFFL;
+            default:
+                return values.getLong(record * 8);
+        }
+    }
+
+    /**
+     * @param record index of the record
+     * @return the {@link Instant} at which the consent string was created
+     */
+    public Instant getConsentRecordCreated(int record) {
+        return Instant.ofEpochMilli(get(ConsentColumn.CREATED, record) * 100);
+    }
+
+    /**
+     * @param record index of the record
+     * @return the {@link Instant} at which the consent string was last updated
+     */
+    public Instant getConsentRecordLastUpdated(int record) {
+        return Instant.ofEpochMilli(get(ConsentColumn.LAST_UPDATED, record) * 100);
+    }
+
+    /**
+     * @param record index of the record
+     * @param purposeId purpose ID to check
+     * @return true if the purpose is allowed by the record
+     */
+    public boolean isPurposeAllowed(int record, int purposeId) {
+        if (purposeId < 1 || purposeId > PURPOSES_SIZE) return false;
+        return (get(ConsentColumn.PURPOSES, record) & 1L << (PURPOSES_SIZE - purposeId)) != 0;
+    }
+
+    /**
+     * @param record index of the record
+     * @param vendorId vendor ID to check
+     * @return true if the vendor is allowed by the record
+     */
+    public boolean isVendorAllowed(int record, int vendorId) {
+        if (vendorId < 1 || vendorId > maxVendorId) return false;
+        return (vendorWord(record, (vendorId - 1) >>> 6) & 1L << (vendorId - 1)) != 0;
+    }
+
+    /**
+     * @param purposeId purpose ID to count
+     * @return number of records allowing the purpose
+     */
+    public long countPurposeAllowed(int purposeId) {
+        long count = 0;
+        for (int record = 0; record < size; record++) {
+            if (isPurposeAllowed(record, purposeId)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param vendorId vendor ID to count
+     * @return number of records allowing the vendor
+     */
+    public long countVendorAllowed(int vendorId) {
+        long count = 0;
+        for (int record = 0; record < size; record++) {
+            if (isVendorAllowed(record, vendorId)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of records allowing each purpose, indexed by purpose ID
+     */
+    public long[] countAllowedPurposes() {
+        final long[] counts = new long[PURPOSES_SIZE + 1];
+        final ByteBuffer purposes = columns[ConsentColumn.PURPOSES.ordinal()];
+        for (int record = 0; record < size; record++) {
+            long bits = purposes.getInt(record * 4) & 0xFFFFFFFFL;
+            while (bits != 0) {
+                counts[PURPOSES_SIZE - Long.numberOfTrailingZeros(bits)]++;
+                bits &= bits - 1;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return number of records allowing each vendor, indexed by vendor ID
+     */
+    public long[] countAllowedVendors() {
+        final long[] counts = new long[maxVendorId + 1];
+        for (int record = 0; record < size; record++) {
+            for (int word = 0; word < vendorWords; word++) {
+                long bits = vendorWord(record, word);
+                while (bits != 0) {
+                    counts[word * Long.SIZE + Long.numberOfTrailingZeros(bits) + 1]++;
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Close the file. Mapped memory is released once the store is garbage collected.
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long vendorWord(int record, int word) {
+        final ByteBuffer chunk = vendorChunks[record / recordsPerChunk];
+        return chunk.getLong(((record % recordsPerChunk) * vendorWords + word) * Long.BYTES);
+    }
+
+    private ByteBuffer map(long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(ORDER);
+    }
+}
@@ -0,0 +1,200 @@
+package com.iab.gdpr.consent.store;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.IdBitmap;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.exception.VendorConsentException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes decoded consents into a file readable with {@link ConsentStore}.
+ *
+ * File layout, all values little endian:
+ * <ul>
+ *     <li>header: magic, format version, record count, maximum vendor ID, words per vendor bitmap and offset of the
+ *     header columns</li>
+ *     <li>one vendor bitmap per record, with bit (vendorId - 1) set when the vendor is allowed. Bitmaps are
+ *     normalized, so bit field and range encoded consents look the same and default consent is already applied.</li>
+ *     <li>one {@link ConsentColumn} after the other, each aligned to 8 bytes</li>
+ * </ul>
+ * Vendor bitmaps are written to the file as consents arrive, header columns are kept in memory and written on
+ * {@link #close()}.
+ *
+ * Instances are not thread safe.
+ */
+public final class ConsentStoreWriter implements Closeable {
+    static final int MAGIC = 0x49434331; // "ICC1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    /** Exclusive limit of records, so that an 8 byte column fits into a single heap array and a single mapping */
+    static final long RECORD_LIMIT = 1 << 27;
+    /** Largest column size in bytes, reached by 8 byte columns holding RECORD_LIMIT - 1 records */
+    static final int MAX_COLUMN_BYTES = (int) (Long.BYTES * (RECORD_LIMIT - 1));
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final ConsentColumn[] COLUMNS = ConsentColumn.values();
+
+    private final FileChannel channel;
+    private final int maxVendorId;
+    private final int vendorWords;
+    private final ByteBuffer buffer;
+    private final ByteBuffer[] columns = new ByteBuffer[COLUMNS.length];
+    // Record being written, staged so that a consent failing to parse changes nothing
+    private final long[] columnValues = new long[COLUMNS.length];
+    private final long[] words;
+    private final IntConsumer wordSetter;
+    private long count;
+    // Set when writing to the file failed, the file is then incomplete and no header is written
+    private boolean failed;
+
+    /**
+     * @param path file to write, replaced if it exists
+     * @param maxVendorId largest vendor ID of consents that will be written
+     * @throws IOException if the file cannot be opened
+     */
+    public ConsentStoreWriter(Path path, int maxVendorId) throws IOException {
+        if (maxVendorId < 1)
+            throw new IllegalArgumentException("Invalid value for maxVendorId:" + maxVendorId);
+
+        this.maxVendorId = maxVendorId;
+        this.vendorWords = IdBitmap.wordsFor(maxVendorId);
+        this.words = new long[vendorWords];
+        this.wordSetter = vendorId -> words[(vendorId - 1) >>> 6] |= 1L << (vendorId - 1);
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_SIZE, vendorWords * Long.BYTES)).order(ConsentStore.ORDER);
+        for (ConsentColumn column : COLUMNS) {
+            columns[column.ordinal()] = ByteBuffer.allocate(column.width * 1024).order(ConsentStore.ORDER);
+        }
+        this.channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+        channel.position(HEADER_SIZE);
+    }
+
+    /**
+     * Append consent to the store
+     * @param vendorConsent consent to write
+     * @throws IllegalArgumentException if the maximum vendor ID of the consent exceeds the one of the store
+     * @throws IllegalStateException if the store already holds the maximum number of records, or an earlier write
+     * failed
+     * @throws VendorConsentException if the consent cannot be parsed, nothing is written then
+     * @throws IOException if writing fails, the writer can then only be closed
+     */
+    public void write(VendorConsent vendorConsent) throws IOException {
+        if (failed)
+            throw new IllegalStateException("Consent store writer failed earlier");
+        if (count >= RECORD_LIMIT - 1)
+            throw new IllegalStateException("Consent store is full: " + count + " records");
+        final int consentMaxVendorId = vendorConsent.getMaxVendorId();
+        if (consentMaxVendorId > maxVendorId)
+            throw new IllegalArgumentException("Max vendor ID " + consentMaxVendorId + " exceeds " + maxVendorId + " of the store");
+
+        // Read the whole record before changing anything
+        final Bits bits = new Bits(vendorConsent.toByteArray());
+        for (ConsentColumn column : COLUMNS) {
+            columnValues[column.ordinal()] = bits.getLong(column.bitOffset, column.bitSize);
+        }
+        Arrays.fill(words, 0);
+        vendorConsent.forEachAllowedVendorId(wordSetter);
+
+        if (buffer.remaining() < vendorWords * Long.BYTES) flush();
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        for (ConsentColumn column : COLUMNS) {
+            put(column, columnValues[column.ordinal()]);
+        }
+        count++;
+    }
+
+    /**
+     * Write header columns and file header, and close the file. After a failed write the file is only closed and
+     * left without a header, so it cannot be opened as a store.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failed) return;
+            flush();
+            long position = channel.position();
+            for (ByteBuffer column : columns) {
+                position = align(position);
+                column.flip();
+                while (column.hasRemaining()) {
+                    position += channel.write(column, position);
+                }
+            }
+
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ConsentStore.ORDER);
+            header.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(count)
+                    .putInt(maxVendorId)
+                    .putInt(vendorWords)
+                    .putLong(align(HEADER_SIZE + count * vendorWords * Long.BYTES));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    static long align(long position) {
+        return (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    private void put(ConsentColumn column, long value) {
+        ByteBuffer values = columns[column.ordinal()];
+        if (!values.hasRemaining()) {
+            final int position = values.position();
+            values = ByteBuffer.wrap(Arrays.copyOf(values.array(), grownCapacity(values.capacity()))).order(ConsentStore.ORDER);
+            values.position(position);
+            columns[column.ordinal()] = values;
+        }
+        switch (column.width) {
+            case 1:
+                values.put((byte) value);
+                break;
+            case 2:
+                values.putShort((short) value);
+                break;
+            case 4:
+                values.putInt((int) value);
+                break;
+            default:
+                values.putLong(value);
+        }
+    }
+
+    /**
+     * @param capacity current capacity of a column buffer
+     * @return doubled capacity, capped at {@link #MAX_COLUMN_BYTES} so it never overflows
+     */
+    static int grownCapacity(int capacity) {
+        return (int) Math.min(2L * capacity, MAX_COLUMN_BYTES);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+        buffer.clear();
+    }
+}
@@ -8,4 +8,13 @@ public class VendorConsentException extends RuntimeException {
     public VendorConsentException(String message) {
         super(message);
     }
+
+    /**
+     * @param message detail message
+     * @param writableStackTrace false to skip filling in the stack trace, for exceptions caused by bad input
+     *                           that are thrown often and handled without looking at where they came from
+     */
+    protected VendorConsentException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
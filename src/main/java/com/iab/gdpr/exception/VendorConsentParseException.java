@@ -1,11 +1,12 @@
 package com.iab.gdpr.exception;
 
 /**
- * Exception for the case where consent string cannot be parsed
+ * Exception for the case where consent string cannot be parsed. Malformed consent strings come from outside and
+ * can be frequent, so this exception has no stack trace.
  */
 public class VendorConsentParseException extends VendorConsentException {
 
     public VendorConsentParseException(String message) {
-        super(message);
+        super(message, false);
     }
 }
@@ -0,0 +1,132 @@
+package com.iab.gdpr;
+
+import com.iab.gdpr.exception.VendorConsentCreateException;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class BitsTest {
+
+    @Test
+    public void testGetLongMatchesBitByBitInterpretation() {
+        // Given: random bit string
+        final Random random = new Random(42);
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        final Bits bits = new Bits(bytes);
+
+        // When: every interval of up to 64 bits is read
+        for (int start = 0; start < 64; start++) {
+            for (int size = 1; size <= Long.SIZE && start + size <= bytes.length * 8; size++) {
+                long expected = 0;
+                for (int i = 0; i < size; i++) {
+                    expected = (expected << 1) | (bits.getBit(start + i) ? 1 : 0);
+                }
+
+                // Then: word extraction returns the same value as reading one bit at a time
+                assertThat(bits.getLong(start, size), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testGetIntFromLastByte() {
+        // Given: bit string 0000 0000 1010 0101
+        final Bits bits = new Bits(new byte[] { 0, (byte) 0xA5 });
+
+        // When: the last 4 bits are read
+        final int value = bits.getInt(12, 4);
+
+        // Then: 0101 is returned
+        assertThat(value, is(5));
+    }
+
+    @Test(expected = VendorConsentParseException.class)
+    public void testGetIntPastEndOfBitString() {
+        // Given: 2 bytes long bit string
+        final Bits bits = new Bits(new byte[2]);
+
+        // When: interval crossing the end of the bit string is read
+        bits.getInt(12, 8);
+
+        // Then: exception is raised
+    }
+
+    @Test
+    public void testSetLongOverwritesInterval() {
+        // Given: bit string with all bits set
+        final Bits bits = new Bits(new byte[] { -1, -1, -1, -1, -1, -1, -1, -1, -1, -1 });
+
+        // When: unaligned 36 bit field is written
+        bits.setLong(5, 36, 0x123456789L);
+
+        // Then: field reads back and surrounding bits are untouched
+        assertThat(bits.getLong(5, 36), is(0x123456789L));
+        assertThat(bits.getInt(0, 5), is(31));
+        assertThat(bits.getLong(41, 39), is((1L << 39) - 1));
+    }
+
+    @Test
+    public void testSetLongWritesFullWord() {
+        // Given: empty bit string
+        final Bits bits = new Bits(new byte[10]);
+
+        // When: unaligned 64 bit fields with the largest value are written
+        bits.setLong(3, 64, Long.MAX_VALUE);
+
+        // Then: field reads back
+        assertThat(bits.getLong(3, 64), is(Long.MAX_VALUE));
+        assertThat(bits.getInt(0, 3), is(0));
+    }
+
+    @Test(expected = VendorConsentCreateException.class)
+    public void testSetLongRejectsNegativeFullWord() {
+        // Given: empty bit string
+        final Bits bits = new Bits(new byte[8]);
+
+        // When: negative 64 bit field is written
+        bits.setLong(0, 64, -1L);
+
+        // Then: exception is raised
+    }
+
+    @Test
+    public void testBitWriterAppendsFieldsSequentially() {
+        // Given: empty bit string
+        final Bits bits = new Bits(new byte[3]);
+
+        // When: fields are appended
+        final BitWriter writer = new BitWriter(bits)
+                .writeInt(6, 3)
+                .writeBit(true)
+                .writeInt(12, 15);
+
+        // Then: fields are written one after another
+        assertThat(writer.position(), is(19));
+        assertThat(bits.getInt(0, 6), is(3));
+        assertThat(bits.getBit(6), is(true));
+        assertThat(bits.getInt(7, 12), is(15));
+    }
+
+    @Test
+    public void testCopyBytesCopiesBitStringBytes() {
+        // Given: bit string over part of a larger array
+        final byte[] bytes = { 1, 2, 3, 4 };
+        final Bits bits = new Bits(bytes).limit(3);
+
+        // When: bytes are copied
+        final byte[] copy = bits.copyBytes();
+
+        // Then: copy holds the bit string bytes, independent of the backing array
+        assertThat(copy, is(new byte[] { 1, 2, 3 }));
+        bytes[0] = 9;
+        assertThat(copy[0], is((byte) 1));
+        assertThat(new Bits(bytes).copyBytes(), is(not(sameInstance(bytes))));
+    }
+}
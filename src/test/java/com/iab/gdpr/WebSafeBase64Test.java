@@ -0,0 +1,75 @@
+package com.iab.gdpr;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WebSafeBase64Test {
+
+    @Test
+    public void testDecodeMatchesJdkDecoder() {
+        // Given: random byte arrays encoded with and without padding
+        final Random random = new Random(3);
+        final byte[] buffer = new byte[64];
+        for (int length = 1; length < 64; length++) {
+            final byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            for (String encoded : new String[] {
+                    Base64.getUrlEncoder().encodeToString(bytes),
+                    Base64.getUrlEncoder().withoutPadding().encodeToString(bytes) }) {
+
+                // When: string and its ASCII bytes are decoded
+                final int decodedLength = WebSafeBase64.decode(encoded, buffer);
+                final byte[] ascii = ("xx" + encoded).getBytes();
+                final byte[] asciiBuffer = new byte[64];
+                final int asciiDecodedLength = WebSafeBase64.decode(ascii, 2, encoded.length(), asciiBuffer);
+
+                // Then: same bytes as JDK decoder are returned
+                assertThat(decodedLength, is(WebSafeBase64.decodedLength(encoded)));
+                assertThat(Arrays.copyOf(buffer, decodedLength), is(bytes));
+                assertThat(Arrays.copyOf(asciiBuffer, asciiDecodedLength), is(bytes));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalCharacter() {
+        // Given: string with character from standard, not websafe, alphabet
+        final String encoded = "BOOl+qOO";
+
+        // When: string is decoded
+        WebSafeBase64.decode(encoded, new byte[8]);
+
+        // Then: exception is raised
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBufferTooSmall() {
+        // Given: string decoding to 6 bytes
+        final String encoded = "BOOlLqOO";
+
+        // When: string is decoded into smaller buffer
+        WebSafeBase64.decode(encoded, new byte[5]);
+
+        // Then: exception is raised
+    }
+
+    @Test
+    public void testTryDecodeReportsInvalidInput() {
+        // Given: valid string, string with illegal character, string with illegal length and a small buffer
+        final byte[] buffer = new byte[6];
+
+        // When: strings are decoded without exceptions
+        // Then: valid string is decoded and invalid input is reported with -1
+        assertThat(WebSafeBase64.tryDecode("BOOlLqOO", buffer), is(6));
+        assertThat(buffer, is(Base64.getUrlDecoder().decode("BOOlLqOO")));
+        assertThat(WebSafeBase64.tryDecode("BOOl+qOO", buffer), is(-1));
+        assertThat(WebSafeBase64.tryDecode("BOOlL", buffer), is(-1));
+        assertThat(WebSafeBase64.tryDecode("BOOlLqOOAA", buffer), is(-1));
+    }
+}
@@ -0,0 +1,123 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CachingVendorConsentDecoderTest {
+
+    private static String consentString(int vendorId) {
+        return VendorConsentEncoder.toBase64String(new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.now())
+                .withConsentRecordLastUpdatedOn(Instant.now())
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(100)
+                .withBitField(Collections.singleton(vendorId))
+                .build());
+    }
+
+    @Test
+    public void testSharedInstance() {
+        // Given: caching decoder
+        final CachingVendorConsentDecoder decoder = new CachingVendorConsentDecoder(10);
+        final String consentString = consentString(7);
+
+        // When: same consent string is decoded twice
+        final VendorConsent first = decoder.fromBase64String(consentString);
+        final VendorConsent second = decoder.fromBase64String(new String(consentString.toCharArray()));
+
+        // Then: decoded instance is shared and counters reflect one miss and one hit
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first, is(VendorConsentDecoder.fromBase64String(consentString)));
+        assertTrue(first.isVendorAllowed(7));
+        assertThat(decoder.missCount(), is(1L));
+        assertThat(decoder.hitCount(), is(1L));
+        assertThat(decoder.size(), is(1));
+    }
+
+    @Test
+    public void testClockEviction() {
+        // Given: single segment cache of 2 entries holding consent strings for vendors 1 and 2
+        final CachingVendorConsentDecoder decoder = new CachingVendorConsentDecoder(2, 1);
+        final VendorConsent first = decoder.fromBase64String(consentString(1));
+        decoder.fromBase64String(consentString(2));
+
+        // When: vendor 1 consent string is used again and a third consent string is decoded
+        decoder.fromBase64String(consentString(1));
+        decoder.fromBase64String(consentString(3));
+
+        // Then: vendor 2 consent string, which was not referenced, is evicted
+        assertThat(decoder.size(), is(2));
+        assertThat(decoder.evictionCount(), is(1L));
+        assertThat(decoder.fromBase64String(consentString(1)), is(sameInstance(first)));
+        assertThat(decoder.hitCount(), is(2L));
+        decoder.fromBase64String(consentString(2));
+        assertThat(decoder.missCount(), is(4L));
+    }
+
+    @Test
+    public void testInvalidConsentStringIsNotCached() {
+        // Given: caching decoder
+        final CachingVendorConsentDecoder decoder = new CachingVendorConsentDecoder(10);
+
+        // When: consent string cut short is decoded
+        try {
+            decoder.fromBase64String("BOUy_skOUy_skABABBENA8-AAAAbN7");
+            fail("Expected VendorConsentParseException");
+        } catch (VendorConsentParseException e) {
+            // expected
+        }
+
+        // Then: nothing is cached
+        assertThat(decoder.size(), is(0));
+    }
+
+    @Test
+    public void testConcurrentDecoding() throws Exception {
+        // Given: cache smaller than the number of distinct consent strings used by several threads
+        final CachingVendorConsentDecoder decoder = new CachingVendorConsentDecoder(16, 4);
+        final String[] consentStrings = new String[40];
+        for (int i = 0; i < consentStrings.length; i++) {
+            consentStrings[i] = consentString(i + 1);
+        }
+
+        // When: threads decode consent strings concurrently
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+            futures.add(executor.submit(() -> {
+                boolean correct = true;
+                for (int i = 0; i < 2000; i++) {
+                    final int n = (i * 7 + seed) % consentStrings.length;
+                    correct &= decoder.fromBase64String(consentStrings[n]).isVendorAllowed(n + 1);
+                }
+                return correct;
+            }));
+        }
+        for (Future<Boolean> future : futures) {
+            assertTrue(future.get());
+        }
+        executor.shutdown();
+
+        // Then: size stays bounded and every lookup was counted
+        assertFalse(decoder.size() > 16);
+        assertThat(decoder.hitCount() + decoder.missCount(), is(8000L));
+    }
+}
@@ -0,0 +1,69 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Bits;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class ConsentFingerprintTest {
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testXxHash64Vectors() {
+        assertThat(ConsentFingerprint.of(new byte[0]), is(0xEF46DB3751D8E999L));
+        assertThat(ConsentFingerprint.of(ascii("a")), is(0xD24EC4F1A98C6E5BL));
+        assertThat(ConsentFingerprint.of(ascii("abc")), is(0x44BC2CF5AD770999L));
+        assertThat(ConsentFingerprint.of(ascii("Nobody inspects the spammish repetition")), is(0xFBCEA83C8A378BF1L));
+    }
+
+    @Test
+    public void testOffsetAndLength() {
+        // Given: bytes embedded in a larger array
+        final byte[] bytes = ascii("0123456789abcdef0123456789abcdef0123456789");
+        final byte[] embedded = new byte[bytes.length + 5];
+        System.arraycopy(bytes, 0, embedded, 3, bytes.length);
+
+        // Then: fingerprint only depends on the selected bytes
+        assertThat(ConsentFingerprint.of(embedded, 3, bytes.length), is(ConsentFingerprint.of(bytes)));
+    }
+
+    @Test
+    public void testBitSourceHashedInPlace() {
+        final Random random = new Random(3);
+        for (int length = 0; length <= 70; length++) {
+            // Given: bytes in a larger reused buffer and encoded as websafe Base64
+            final byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            final byte[] buffer = Arrays.copyOf(bytes, length + 9);
+            final String base64 = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+            // Then: bit sources have the fingerprint of their bytes
+            assertThat(ConsentFingerprint.of(new Bits(buffer).limit(length)), is(ConsentFingerprint.of(bytes)));
+            if (length > 0)
+                assertThat(ConsentFingerprint.of(new WebSafeBase64Bits(base64)), is(ConsentFingerprint.of(bytes)));
+        }
+    }
+
+    @Test
+    public void testSingleBitChange() {
+        final byte[] bytes = ascii("0123456789abcdef0123456789abcdef0123456789");
+        final long fingerprint = ConsentFingerprint.of(bytes);
+        bytes[20] ^= 1;
+        assertThat(ConsentFingerprint.of(bytes), is(not(fingerprint)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRange() {
+        ConsentFingerprint.of(new byte[4], 2, 3);
+    }
+}
@@ -0,0 +1,66 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Purpose;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ConsentHeaderTest {
+
+    private static final String CONSENT_STRING = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+
+    @Test
+    public void testHeaderMatchesFullDecode() {
+        // Given: consent string and its fully decoded consent
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64String(CONSENT_STRING);
+        final ConsentHeader header = new ConsentHeader();
+
+        // When: only the header is decoded
+        final ConsentStatus status = header.decode(CONSENT_STRING);
+
+        // Then: header fields match the full decode
+        assertThat(status, is(ConsentStatus.VALID));
+        assertThat(header.getVersion(), is(vendorConsent.getVersion()));
+        assertThat(header.getConsentRecordCreated(), is(vendorConsent.getConsentRecordCreated()));
+        assertThat(header.getConsentRecordLastUpdated(), is(vendorConsent.getConsentRecordLastUpdated()));
+        assertThat(header.getCmpId(), is(vendorConsent.getCmpId()));
+        assertThat(header.getCmpVersion(), is(vendorConsent.getCmpVersion()));
+        assertThat(header.getConsentScreen(), is(vendorConsent.getConsentScreen()));
+        assertThat(header.getConsentLanguage(), is(vendorConsent.getConsentLanguage()));
+        assertThat(header.getVendorListVersion(), is(vendorConsent.getVendorListVersion()));
+        assertThat(header.getAllowedPurposesBits(), is(vendorConsent.getAllowedPurposesBits()));
+        for (int purposeId = 0; purposeId <= 25; purposeId++) {
+            assertThat(header.isPurposeAllowed(purposeId), is(vendorConsent.isPurposeAllowed(purposeId)));
+        }
+        assertThat(header.isPurposeAllowed(Purpose.STORAGE_AND_ACCESS.getId()), is(true));
+    }
+
+    @Test
+    public void testVendorSectionIsNotRead() {
+        // Given: consent string cut right after the header
+        final String headerOnly = CONSENT_STRING.substring(0, ConsentHeader.HEADER_CHARS);
+        final ConsentHeader header = new ConsentHeader();
+
+        // When: header is decoded
+        final ConsentStatus status = header.decode(headerOnly);
+
+        // Then: header is decoded even though the string has no vendor section
+        assertThat(status, is(ConsentStatus.VALID));
+        assertThat(header.getCmpId(), is(VendorConsentDecoder.fromBase64String(CONSENT_STRING).getCmpId()));
+    }
+
+    @Test
+    public void testBadHeaders() {
+        // Given: header decoder
+        final ConsentHeader header = new ConsentHeader();
+
+        // When: bad consent strings are decoded
+        // Then: the problems are reported
+        assertThat(header.decode(null), is(ConsentStatus.EMPTY));
+        assertThat(header.decode(""), is(ConsentStatus.EMPTY));
+        assertThat(header.decode(CONSENT_STRING.substring(0, ConsentHeader.HEADER_CHARS - 1)), is(ConsentStatus.TRUNCATED));
+        assertThat(header.decode(CONSENT_STRING.replace('O', '+')), is(ConsentStatus.INVALID_BASE64));
+        assertThat(header.decode("K" + CONSENT_STRING.substring(1)), is(ConsentStatus.UNSUPPORTED_VERSION));
+    }
+}
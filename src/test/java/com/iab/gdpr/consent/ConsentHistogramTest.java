@@ -0,0 +1,128 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.iab.gdpr.GdprConstants.PURPOSES_SIZE;
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConsentHistogramTest {
+
+    private static List<VendorConsent> consents() {
+        final List<VendorConsent> consents = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            final VendorConsentBuilder builder = new VendorConsentBuilder()
+                    .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+                    .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070400))
+                    .withCmpID(i % 7)
+                    .withConsentLanguage("EN")
+                    .withVendorListVersion(150)
+                    .withAllowedPurposeIds(new HashSet<>(Arrays.asList(1, i % PURPOSES_SIZE + 1)))
+                    .withMaxVendorId(100 + i);
+            if (i % 3 == 0) {
+                builder.withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                        .withDefaultConsent(true)
+                        .withRangeEntries(Collections.singletonList(new StartEndRangeEntry(10, 20 + i)));
+            } else {
+                builder.withBitField(new HashSet<>(Arrays.asList(1, i, 100 + i)));
+            }
+            consents.add(builder.build());
+        }
+        return consents;
+    }
+
+    private static void assertMatches(ConsentHistogram histogram, List<VendorConsent> consents) {
+        assertThat(histogram.getCount(), is((long) consents.size()));
+        for (int vendorId = 0; vendorId <= 601; vendorId++) {
+            final int id = vendorId;
+            assertThat(histogram.getVendorAllowedCount(vendorId), is(consents.stream().filter(c -> c.isVendorAllowed(id)).count()));
+        }
+        for (int purposeId = 0; purposeId <= PURPOSES_SIZE + 1; purposeId++) {
+            final int id = purposeId;
+            assertThat(histogram.getPurposeAllowedCount(purposeId), is(consents.stream().filter(c -> c.isPurposeAllowed(id)).count()));
+        }
+        for (int cmpId = 0; cmpId < 10; cmpId++) {
+            final int id = cmpId;
+            assertThat(histogram.getCmpCount(cmpId), is(consents.stream().filter(c -> c.getCmpId() == id).count()));
+        }
+    }
+
+    @Test
+    public void testParallelCounts() {
+        // Given: consents with bit field and range encoding
+        final List<VendorConsent> consents = consents();
+
+        // When: consents are counted in parallel
+        final ConsentHistogram histogram = ConsentHistogram.of(consents);
+
+        // Then: counts match the consents
+        assertMatches(histogram, consents);
+        assertThat(histogram.getVendorAllowedCounts().length, is(601));
+        assertThat(histogram.getInvalidCount(), is(0L));
+    }
+
+    @Test
+    public void testCollector() {
+        // Given: consents
+        final List<VendorConsent> consents = consents();
+
+        // When: consents are collected sequentially and in parallel
+        final ConsentHistogram sequential = consents.stream().collect(ConsentHistogram.collector());
+        final ConsentHistogram parallel = consents.parallelStream().collect(ConsentHistogram.collector());
+
+        // Then: both give the same counts
+        assertThat(parallel.getVendorAllowedCounts(), is(sequential.getVendorAllowedCounts()));
+        assertThat(parallel.getPurposeAllowedCounts(), is(sequential.getPurposeAllowedCounts()));
+        assertThat(parallel.getCmpCounts(), is(sequential.getCmpCounts()));
+        assertMatches(sequential, consents);
+    }
+
+    @Test
+    public void testConsentStrings() {
+        // Given: consent strings including invalid ones
+        final List<VendorConsent> consents = consents();
+        final List<String> consentStrings = consents.stream().map(VendorConsentEncoder::toBase64String).collect(Collectors.toList());
+        consentStrings.add("#invalid");
+        consentStrings.add("BOUy_skOUy_skABABBENA8-AAAAbN7"); // Cut short at 22 bytes
+
+        // When: consent strings are counted in parallel
+        final ConsentHistogram histogram = ConsentHistogram.ofConsentStrings(consentStrings);
+
+        // Then: valid consent strings are counted and invalid ones reported
+        assertMatches(histogram, consents);
+        assertThat(histogram.getInvalidCount(), is(2L));
+    }
+
+    @Test
+    public void testTruncatedBitFieldLeavesCountsUnchanged() {
+        // Given: histogram of one consent, and the same consent cut short inside its bit field
+        final VendorConsent vendorConsent = consents().get(0);
+        final ConsentHistogram histogram = ConsentHistogram.of(Collections.singletonList(vendorConsent));
+        final byte[] bytes = vendorConsent.toByteArray();
+        final VendorConsent truncated = VendorConsentDecoder.fromByteArray(Arrays.copyOf(bytes, bytes.length - 2));
+
+        // When: truncated consent is counted
+        try {
+            histogram.add(truncated);
+            fail("Expected VendorConsentParseException");
+        } catch (VendorConsentParseException e) {
+            // expected
+        }
+
+        // Then: no counter changed
+        assertMatches(histogram, Collections.singletonList(vendorConsent));
+    }
+}
@@ -0,0 +1,108 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Purpose;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ConsentPolicyTest {
+
+    private static VendorConsent consent() {
+        // Purposes 1, 3 and 5 with vendors 10-20 and 40-50
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.now())
+                .withConsentRecordLastUpdatedOn(Instant.now())
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withAllowedPurposeIds(new HashSet<>(Arrays.asList(1, 3, 5)))
+                .withMaxVendorId(60)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withDefaultConsent(false)
+                .withRangeEntries(Arrays.asList(new StartEndRangeEntry(10, 20), new StartEndRangeEntry(40, 50)))
+                .build();
+    }
+
+    @Test
+    public void testPurposesBits() {
+        // Given: purposes 1 and 3
+
+        // When: policy is compiled
+        final ConsentPolicy policy = ConsentPolicy.of(10, Purpose.STORAGE_AND_ACCESS, Purpose.AD_SELECTION);
+
+        // Then: purpose bits have the layout of getAllowedPurposesBits
+        assertThat(policy.getVendorId(), is(10));
+        assertThat(policy.getPurposesBits(), is(0b101000000000000000000000));
+        assertThat(policy, is(ConsentPolicy.of(10, EnumSet.of(Purpose.AD_SELECTION, Purpose.STORAGE_AND_ACCESS))));
+    }
+
+    @Test
+    public void testIsAllowedBy() {
+        // Given: consent with purposes 1, 3 and 5 and vendors 10-20 and 40-50
+        final VendorConsent vendorConsent = consent();
+
+        // When: policies are evaluated
+        // Then: policy is allowed only when vendor and all purposes are allowed
+        assertTrue(ConsentPolicy.of(10, Purpose.STORAGE_AND_ACCESS, Purpose.AD_SELECTION).isAllowedBy(vendorConsent));
+        assertTrue(ConsentPolicy.of(45, Collections.emptySet()).isAllowedBy(vendorConsent));
+        assertFalse(ConsentPolicy.of(10, Purpose.STORAGE_AND_ACCESS, Purpose.PERSONALIZATION).isAllowedBy(vendorConsent));
+        assertFalse(ConsentPolicy.of(30, Purpose.STORAGE_AND_ACCESS).isAllowedBy(vendorConsent));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUndefinedPurpose() {
+        // Given: undefined purpose
+
+        // When: policy is compiled
+        ConsentPolicy.of(10, Purpose.UNDEFINED);
+
+        // Then: exception is raised
+    }
+
+    @Test
+    public void testTable() {
+        // Given: table of policies, not sorted by vendor ID
+        final ConsentPolicyTable table = new ConsentPolicyTable(Arrays.asList(
+                ConsentPolicy.of(45, Purpose.MEASUREMENT),
+                ConsentPolicy.of(10, Purpose.STORAGE_AND_ACCESS, Purpose.AD_SELECTION),
+                ConsentPolicy.of(10, Purpose.PERSONALIZATION),
+                ConsentPolicy.of(30),
+                ConsentPolicy.of(61, Purpose.STORAGE_AND_ACCESS)));
+        final VendorConsent vendorConsent = consent();
+
+        // When: table is evaluated
+        final boolean[] results = table.evaluate(vendorConsent);
+
+        // Then: results agree with single policy evaluation
+        assertThat(results, is(new boolean[] { true, true, false, false, false }));
+        for (int i = 0; i < table.size(); i++) {
+            assertThat(results[i], is(table.get(i).isAllowedBy(vendorConsent)));
+        }
+    }
+
+    @Test
+    public void testTableWithCommonPurposeNotAllowed() {
+        // Given: table of policies that all require purpose 2
+        final ConsentPolicyTable table = new ConsentPolicyTable(Arrays.asList(
+                ConsentPolicy.of(10, Purpose.PERSONALIZATION),
+                ConsentPolicy.of(15, Purpose.PERSONALIZATION, Purpose.STORAGE_AND_ACCESS)));
+        final boolean[] results = { true, true, true };
+
+        // When: table is evaluated against consent without purpose 2
+        table.evaluate(consent(), results);
+
+        // Then: no policy is allowed and results past the table are untouched
+        assertThat(results, is(new boolean[] { false, false, true }));
+    }
+}
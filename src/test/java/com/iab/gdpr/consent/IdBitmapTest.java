@@ -0,0 +1,111 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.GdprConstants;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class IdBitmapTest {
+
+    @Test
+    public void testOfIds() {
+        // Given: IDs across word boundaries, including IDs outside of [1, maxId]
+        final int[] ids = { 0, 1, 63, 64, 65, 128, 130, 131 };
+
+        // When: bitmap is created with max ID of 130
+        final IdBitmap bitmap = IdBitmap.of(130, ids);
+
+        // Then: only IDs in [1, 130] are in the set
+        assertThat(bitmap.maxId(), is(130));
+        assertThat(bitmap.cardinality(), is(6));
+        assertThat(bitmap.toArray(), is(new int[] { 1, 63, 64, 65, 128, 130 }));
+        assertThat(bitmap.toSet(), is(new HashSet<>(Arrays.asList(1, 63, 64, 65, 128, 130))));
+        assertTrue(bitmap.contains(64));
+        assertFalse(bitmap.contains(0));
+        assertFalse(bitmap.contains(2));
+        assertFalse(bitmap.contains(131));
+    }
+
+    @Test
+    public void testIteration() {
+        // Given: bitmap with IDs in several words
+        final IdBitmap bitmap = IdBitmap.of(200, 3, 64, 65, 199);
+
+        // When: bitmap is iterated with nextId and forEach
+        final StringBuilder nextIds = new StringBuilder();
+        for (int id = bitmap.nextId(1); id > 0; id = bitmap.nextId(id + 1)) {
+            nextIds.append(id).append(' ');
+        }
+        final StringBuilder forEachIds = new StringBuilder();
+        bitmap.forEach(id -> forEachIds.append(id).append(' '));
+
+        // Then: IDs are visited in ascending order
+        assertThat(nextIds.toString(), is("3 64 65 199 "));
+        assertThat(forEachIds.toString(), is("3 64 65 199 "));
+        assertThat(bitmap.nextId(200), is(-1));
+    }
+
+    @Test
+    public void testOfWordsIgnoresBitsPastMaxId() {
+        // Given: words with all bits set
+        final long[] words = { -1L, -1L };
+
+        // When: bitmap with max ID of 70 is created
+        final IdBitmap bitmap = IdBitmap.of(words, 70);
+
+        // Then: only IDs up to 70 are in the set
+        assertThat(bitmap.cardinality(), is(70));
+        assertThat(bitmap, is(IdBitmap.of(new long[] { -1L, 0x3F }, 70)));
+        assertTrue(IdBitmap.empty(70).isEmpty());
+    }
+
+    @Test
+    public void testSetOperations() {
+        // Given: bitmaps of different sizes with IDs across word boundaries
+        final IdBitmap first = IdBitmap.of(130, 1, 64, 65, 100, 130);
+        final IdBitmap second = IdBitmap.of(70, 1, 2, 65, 70);
+
+        // Then: set operations give the expected IDs and max IDs
+        assertThat(first.and(second), is(IdBitmap.of(70, 1, 65)));
+        assertThat(second.and(first), is(IdBitmap.of(70, 1, 65)));
+        assertThat(first.or(second), is(IdBitmap.of(130, 1, 2, 64, 65, 70, 100, 130)));
+        assertThat(second.or(first), is(first.or(second)));
+        assertThat(first.xor(second), is(IdBitmap.of(130, 2, 64, 70, 100, 130)));
+        assertThat(first.andNot(second), is(IdBitmap.of(130, 64, 100, 130)));
+        assertThat(second.andNot(first), is(IdBitmap.of(70, 2, 70)));
+        assertThat(first.andCardinality(second), is(2));
+        assertTrue(first.intersects(second));
+        assertFalse(first.intersects(IdBitmap.of(200, 2, 3, 199)));
+    }
+
+    @Test
+    public void testChangedVendorsBetweenEncodings() {
+        // Given: same vendors as bit field and range encoded consent, and a consent with one vendor changed
+        final VendorConsentBuilder builder = new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.now())
+                .withConsentRecordLastUpdatedOn(Instant.now())
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(200);
+        final IdBitmap bitField = VendorConsentDecoder.fromByteArray(
+                builder.withBitField(new HashSet<>(Arrays.asList(5, 6, 7, 150))).build().toByteArray()).getAllowedVendorBitmap();
+        final IdBitmap range = VendorConsentDecoder.fromByteArray(builder
+                .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                .withRangeEntries(Arrays.asList(new StartEndRangeEntry(5, 7), new SingleRangeEntry(151)))
+                .build().toByteArray()).getAllowedVendorBitmap();
+
+        // Then: bitmaps of both encodings can be compared directly
+        assertThat(bitField.xor(range), is(IdBitmap.of(200, 150, 151)));
+        assertThat(bitField.andCardinality(range), is(3));
+    }
+}
@@ -2,6 +2,8 @@ package com.iab.gdpr.consent;
 
 import com.iab.gdpr.Bits;
 import com.iab.gdpr.consent.implementation.v1.ByteBufferBackedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.RangeIndexedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.ReusableVendorConsent;
 import org.junit.Test;
 
 import java.util.Base64;
@@ -9,6 +11,8 @@ import java.util.Base64;
 import static com.iab.gdpr.GdprConstants.VERSION_BIT_OFFSET;
 import static com.iab.gdpr.GdprConstants.VERSION_BIT_SIZE;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 public class VendorConsentDecoderTest {
@@ -84,4 +88,78 @@ public class VendorConsentDecoderTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testRangeIndexedStrategy() {
+        // Given: version 1 consent string
+        final String consentString = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+
+        // When: decoder is called with range indexed strategy
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64String(consentString, DecodingStrategy.RANGE_INDEXED);
+
+        // Then: v1 RangeIndexedVendorConsent is returned
+        assertThat(vendorConsent.getClass(),is(RangeIndexedVendorConsent.class));
+        assertThat(vendorConsent, is(VendorConsentDecoder.fromBase64String(consentString)));
+    }
+
+    @Test
+    public void testFromBase64Chars() {
+        // Given: version 1 consent string
+        final String consentString = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+
+        // When: decoder reads from the characters
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64Chars(consentString);
+
+        // Then: same consent as decoded from bytes is returned
+        final VendorConsent expected = VendorConsentDecoder.fromBase64String(consentString);
+        assertThat(vendorConsent.getConsentRecordCreated(), is(expected.getConsentRecordCreated()));
+        assertThat(vendorConsent.getConsentLanguage(), is(expected.getConsentLanguage()));
+        assertThat(vendorConsent.getAllowedPurposes(), is(expected.getAllowedPurposes()));
+        assertThat(vendorConsent.getAllowedVendorIds(), is(expected.getAllowedVendorIds()));
+        assertThat(vendorConsent, is(expected));
+    }
+
+    @Test
+    public void testFromBase64CharsReadsOnlyRequestedFields() {
+        // Given: consent string with invalid characters in the vendor section
+        final String consentString = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+        final String corrupted = consentString.substring(0, 40) + "**" + consentString.substring(42);
+
+        // When: decoder reads from the characters
+        final VendorConsent vendorConsent = VendorConsentDecoder.fromBase64Chars(corrupted);
+
+        // Then: header fields can still be read
+        assertThat(vendorConsent.getCmpId(), is(VendorConsentDecoder.fromBase64String(consentString).getCmpId()));
+    }
+
+
+    @Test
+    public void testTryFromBase64String() {
+        // Given: valid consent string
+        final String consentString = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+
+        // When: it is decoded without exceptions
+        final ConsentDecodeResult result = VendorConsentDecoder.tryFromBase64String(consentString, DecodingStrategy.EAGER);
+
+        // Then: consent is decoded
+        assertThat(result.isValid(), is(true));
+        assertThat(result.getStatus(), is(ConsentStatus.VALID));
+        assertThat(result.getVendorConsent(), is(VendorConsentDecoder.fromBase64String(consentString)));
+    }
+
+    @Test
+    public void testTryFromBase64StringRejectsBadInput() {
+        // Given: missing, non Base64, unsupported and truncated consent strings
+        // When: they are decoded without exceptions
+        // Then: the problems are reported with shared results holding no consent
+        assertThat(VendorConsentDecoder.tryFromBase64String(null, DecodingStrategy.LAZY).getStatus(), is(ConsentStatus.EMPTY));
+        assertThat(VendorConsentDecoder.tryFromBase64String("BOOl+qOO", DecodingStrategy.LAZY).getStatus(), is(ConsentStatus.INVALID_BASE64));
+        assertThat(VendorConsentDecoder.tryFromBase64String("KAAAAAAA", DecodingStrategy.LAZY).getStatus(), is(ConsentStatus.UNSUPPORTED_VERSION));
+        final String tooLong = new String(new char[(ReusableVendorConsent.MAX_CONSENT_BYTES + 1) * 4 / 3 + 4]).replace('\0', 'A');
+        assertThat(VendorConsentDecoder.tryFromBase64String(tooLong, DecodingStrategy.LAZY).getStatus(), is(ConsentStatus.TOO_LONG));
+        final ConsentDecodeResult truncated = VendorConsentDecoder.tryFromBase64String("BOOlLqOOOlLq", DecodingStrategy.LAZY);
+        assertThat(truncated.getStatus(), is(ConsentStatus.TRUNCATED));
+        assertThat(truncated.isValid(), is(false));
+        assertThat(truncated.getVendorConsent(), is(nullValue()));
+        assertThat(VendorConsentDecoder.tryFromBase64String("BOOlLqOOOlLqAA", DecodingStrategy.EAGER), is(sameInstance(truncated)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class VendorConsentInternerTest {
+
+    private static String consentString(int vendorId) {
+        return VendorConsentEncoder.toBase64String(new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1525000000))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1525000000))
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(100)
+                .withBitField(Collections.singleton(vendorId))
+                .build());
+    }
+
+    @Test
+    public void testSharedInstance() {
+        // Given: interner
+        final VendorConsentInterner interner = new VendorConsentInterner();
+        final String consentString = consentString(7);
+
+        // When: same consent string is decoded twice
+        final VendorConsent first = interner.fromBase64String(consentString);
+        final VendorConsent second = interner.fromBase64String(new String(consentString.toCharArray()));
+
+        // Then: one instance is kept
+        assertThat(second, is(sameInstance(first)));
+        assertTrue(first.isVendorAllowed(7));
+        assertThat(interner.size(), is(1));
+    }
+
+    @Test
+    public void testInternDecodedConsent() {
+        // Given: interner holding decoded consent string
+        final VendorConsentInterner interner = new VendorConsentInterner();
+        final VendorConsent interned = interner.fromBase64String(consentString(7));
+
+        // When: consents decoded elsewhere are interned
+        final VendorConsent same = interner.intern(VendorConsentDecoder.fromBase64String(consentString(7), DecodingStrategy.EAGER));
+        final VendorConsent other = VendorConsentDecoder.fromBase64String(consentString(8), DecodingStrategy.EAGER);
+
+        // Then: consent with same bytes is replaced by the interned one, others are added
+        assertThat(same, is(sameInstance(interned)));
+        assertThat(interner.intern(other), is(sameInstance(other)));
+        assertThat(interner.fromBase64String(consentString(8)), is(sameInstance(other)));
+        assertThat(interner.fromBase64String(consentString(8)), is(not(sameInstance(interned))));
+        assertThat(interner.size(), is(2));
+    }
+
+    @Test
+    public void testManyDistinctConsents() {
+        // Given: interner holding more consents than its initial capacity
+        final VendorConsentInterner interner = new VendorConsentInterner();
+        final VendorConsent[] consents = new VendorConsent[100];
+        for (int i = 0; i < consents.length; i++) {
+            consents[i] = interner.fromBase64String(consentString(i + 1));
+        }
+
+        // When: the consent strings are decoded again
+        // Then: every consent is still found
+        for (int i = 0; i < consents.length; i++) {
+            assertThat(interner.fromBase64String(consentString(i + 1)), is(sameInstance(consents[i])));
+        }
+        assertThat(interner.size(), is(consents.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyConsentString() {
+        new VendorConsentInterner().fromBase64String("");
+    }
+}
@@ -0,0 +1,137 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.implementation.v1.ByteBufferBackedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.MaterializedVendorConsent;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentMutator;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_BIT_FIELD;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class VendorConsentRegistryTest {
+
+    private static VendorConsent consent(int maxVendorId) {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070500))
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(maxVendorId)
+                .withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD)
+                .withBitField(Collections.emptySet())
+                .build();
+    }
+
+    @Test
+    public void testPutStoresImmutableCopy() {
+        // Given: registry and lazy consent over bytes owned by the caller
+        final VendorConsentRegistry<String> registry = new VendorConsentRegistry<>();
+        final byte[] bytes = consent(10).toByteArray().clone();
+        final VendorConsent lazyConsent = new ByteBufferBackedVendorConsent(new Bits(bytes));
+
+        // When: consent is put and the caller changes its bytes afterwards
+        final VendorConsent stored = registry.put("user", lazyConsent);
+        new Bits(bytes).setBit(173);
+
+        // Then: registry holds an immutable copy that is not affected
+        assertThat(stored, is(instanceOf(MaterializedVendorConsent.class)));
+        assertThat(registry.get("user"), is(sameInstance(stored)));
+        assertThat(stored.isVendorAllowed(1), is(false));
+        assertThat(lazyConsent.isVendorAllowed(1), is(true));
+
+        // And: immutable consents are stored as they are
+        final VendorConsent materialized = VendorConsentDecoder.fromBase64String(
+                VendorConsentEncoder.toBase64String(lazyConsent), DecodingStrategy.EAGER);
+        assertThat(registry.put("other", materialized), is(sameInstance(materialized)));
+        assertThat(registry.size(), is(2));
+    }
+
+    @Test
+    public void testReplaceComparesWithCurrent() {
+        // Given: registry with a consent
+        final VendorConsentRegistry<String> registry = new VendorConsentRegistry<>();
+        final VendorConsent first = registry.put("user", consent(10));
+        final VendorConsent second = new VendorConsentMutator(first).withVendorAllowed(1, true).build();
+        final VendorConsent third = new VendorConsentMutator(first).withVendorAllowed(2, true).build();
+
+        // When: consent is replaced, then replaced again expecting the old consent
+        final boolean replaced = registry.replace("user", first, second);
+        final boolean stale = registry.replace("user", first, third);
+
+        // Then: only the first replace succeeds
+        assertThat(replaced, is(true));
+        assertThat(stale, is(false));
+        assertThat(registry.get("user").isVendorAllowed(1), is(true));
+        assertThat(registry.get("user").isVendorAllowed(2), is(false));
+        assertThat(registry.replace("nobody", first, second), is(false));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        // Given: registry with a consent
+        final VendorConsentRegistry<String> registry = new VendorConsentRegistry<>();
+        registry.put("user", consent(10));
+
+        // When: consent is updated and removed
+        final VendorConsent updated = registry.update("user",
+                current -> new VendorConsentMutator(current).withVendorAllowed(3, true).build());
+        final VendorConsent missing = registry.update("nobody",
+                current -> new VendorConsentMutator(current).withVendorAllowed(3, true).build());
+        final VendorConsent removed = registry.remove("user");
+
+        // Then: update is stored and removed, and missing users are not added
+        assertThat(updated.isVendorAllowed(3), is(true));
+        assertThat(removed, is(sameInstance(updated)));
+        assertThat(missing, is(nullValue()));
+        assertThat(registry.get("user"), is(nullValue()));
+        assertThat(registry.size(), is(0));
+    }
+
+    @Test
+    public void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        // Given: registry with a consent and threads each allowing their own vendors
+        final int threadCount = 8;
+        final int vendorsPerThread = 50;
+        final VendorConsentRegistry<String> registry = new VendorConsentRegistry<>();
+        registry.put("user", consent(threadCount * vendorsPerThread));
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int firstVendorId = 1 + t * vendorsPerThread;
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int vendorId = firstVendorId; vendorId < firstVendorId + vendorsPerThread; vendorId++) {
+                    final int allowedVendorId = vendorId;
+                    registry.update("user",
+                            current -> new VendorConsentMutator(current).withVendorAllowed(allowedVendorId, true).build());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // When: threads update the same consent at the same time
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        // Then: every update is kept
+        assertThat(registry.get("user").getAllowedVendorBitmap().cardinality(), is(threadCount * vendorsPerThread));
+    }
+}
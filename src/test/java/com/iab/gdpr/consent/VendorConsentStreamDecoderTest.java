@@ -0,0 +1,113 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VendorConsentStreamDecoderTest {
+
+    private static String consentString(int vendorId) {
+        return VendorConsentEncoder.toBase64String(new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1525000000))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1525000000))
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(1000)
+                .withBitField(Collections.singleton(vendorId))
+                .build());
+    }
+
+    private static ByteArrayInputStream stream(String lines) {
+        return new ByteArrayInputStream(lines.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        // Given: consent strings with "\n" and "\r\n" line breaks, an empty line and no final line break
+        final String lines = consentString(1) + "\n" + consentString(2) + "\r\n\n" + consentString(3);
+        final List<Long> lineNumbers = new ArrayList<>();
+        final List<Integer> vendorIds = new ArrayList<>();
+
+        // When: stream is decoded
+        final long decoded = new VendorConsentStreamDecoder().decode(stream(lines), (lineNumber, vendorConsent) -> {
+            lineNumbers.add(lineNumber);
+            vendorConsent.forEachAllowedVendorId(vendorIds::add);
+        });
+
+        // Then: every consent string is visited with its line number
+        assertThat(decoded, is(3L));
+        assertThat(lineNumbers, is(Arrays.asList(1L, 2L, 4L)));
+        assertThat(vendorIds, is(Arrays.asList(1, 2, 3)));
+    }
+
+    @Test
+    public void testLinesAcrossBufferBoundaries() throws IOException {
+        // Given: more consent strings than fit into the smallest buffer
+        final StringBuilder lines = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            lines.append(consentString(i)).append('\n');
+        }
+        final List<Long> mismatchedLineNumbers = new ArrayList<>();
+
+        // When: stream is decoded with the smallest buffer
+        final long decoded = new VendorConsentStreamDecoder(VendorConsentStreamDecoder.MAX_LINE_LENGTH + 1)
+                .decode(stream(lines.toString()), (lineNumber, vendorConsent) -> {
+                    if (!vendorConsent.isVendorAllowed((int) lineNumber)) mismatchedLineNumbers.add(lineNumber);
+                });
+
+        // Then: every consent string is decoded intact
+        assertThat(decoded, is(1000L));
+        assertThat(mismatchedLineNumbers, is(Collections.emptyList()));
+    }
+
+    @Test
+    public void testInvalidLines() throws IOException {
+        // Given: invalid Base64, unknown version and a line longer than any consent string between valid lines
+        final char[] longLine = new char[VendorConsentStreamDecoder.MAX_LINE_LENGTH * 2];
+        Arrays.fill(longLine, 'B');
+        final String lines = consentString(1) + "\n#comment\nKAAAAAAA\n" + new String(longLine) + "\n" + consentString(5) + "\n";
+        final List<Long> invalidLineNumbers = new ArrayList<>();
+        final List<Long> lineNumbers = new ArrayList<>();
+
+        // When: stream is decoded with a visitor collecting invalid lines
+        final long decoded = new VendorConsentStreamDecoder(VendorConsentStreamDecoder.MAX_LINE_LENGTH + 1).decode(stream(lines),
+                new VendorConsentVisitor() {
+                    @Override
+                    public void visit(long lineNumber, VendorConsent vendorConsent) {
+                        lineNumbers.add(lineNumber);
+                    }
+
+                    @Override
+                    public void invalid(long lineNumber, RuntimeException cause) {
+                        invalidLineNumbers.add(lineNumber);
+                    }
+                });
+
+        // Then: invalid lines are reported and valid ones decoded
+        assertThat(decoded, is(2L));
+        assertThat(lineNumbers, is(Arrays.asList(1L, 5L)));
+        assertThat(invalidLineNumbers, is(Arrays.asList(2L, 3L, 4L)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLineRethrownByDefault() throws IOException {
+        // Given: stream with invalid Base64
+        final String lines = "#comment\n";
+
+        // When: stream is decoded with a visitor not handling invalid lines
+        new VendorConsentStreamDecoder().decode(stream(lines), (lineNumber, vendorConsent) -> { });
+
+        // Then: IllegalArgumentException is thrown
+    }
+}
@@ -0,0 +1,104 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+
+import static com.iab.gdpr.GdprConstants.*;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VendorConsentValidatorTest {
+
+    private static final int END_VENDOR_ID_OFFSET = RANGE_ENTRY_OFFSET + 1 + VENDOR_ID_SIZE + 1 + VENDOR_ID_SIZE;
+
+    private VendorConsentBuilder headerBuilder() {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070500))
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(100);
+    }
+
+    // Range entries 5, then 10-20
+    private byte[] rangeConsent() {
+        return headerBuilder()
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withRangeEntries(Arrays.asList(new SingleRangeEntry(5), new StartEndRangeEntry(10, 20)))
+                .build()
+                .toByteArray()
+                .clone();
+    }
+
+    private byte[] bitFieldConsent() {
+        return headerBuilder()
+                .withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD)
+                .withBitField(Collections.singleton(100))
+                .build()
+                .toByteArray()
+                .clone();
+    }
+
+    @Test
+    public void testValidConsents() {
+        // Given: well formed consents in both encodings
+        // When: they are validated
+        // Then: they are valid
+        assertThat(VendorConsentValidator.validate(rangeConsent()), is(ConsentStatus.VALID));
+        assertThat(VendorConsentValidator.validate(bitFieldConsent()), is(ConsentStatus.VALID));
+        assertThat(VendorConsentValidator.validate(Base64.getUrlDecoder().decode(
+                "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA")),
+                is(ConsentStatus.VALID));
+    }
+
+    @Test
+    public void testEmptyAndUnsupportedVersion() {
+        // Given: missing consent and consent with version 2
+        final byte[] version2 = rangeConsent();
+        new Bits(version2).setInt(VERSION_BIT_OFFSET, VERSION_BIT_SIZE, 2);
+
+        // When: they are validated
+        // Then: problems are reported
+        assertThat(VendorConsentValidator.validate((byte[]) null), is(ConsentStatus.EMPTY));
+        assertThat(VendorConsentValidator.validate(new byte[0]), is(ConsentStatus.EMPTY));
+        assertThat(VendorConsentValidator.validate(version2), is(ConsentStatus.UNSUPPORTED_VERSION));
+    }
+
+    @Test
+    public void testTruncated() {
+        // Given: consents cut short in the header, the bit field and the range section
+        final byte[] range = rangeConsent();
+        final byte[] bitField = bitFieldConsent();
+
+        // When: they are validated
+        // Then: they are truncated
+        assertThat(VendorConsentValidator.validate(Arrays.copyOf(range, 20)), is(ConsentStatus.TRUNCATED));
+        assertThat(VendorConsentValidator.validate(Arrays.copyOf(bitField, bitField.length - 1)), is(ConsentStatus.TRUNCATED));
+        assertThat(VendorConsentValidator.validate(Arrays.copyOf(range, range.length - 1)), is(ConsentStatus.TRUNCATED));
+    }
+
+    @Test
+    public void testInvalidRangeEntries() {
+        // Given: range entries with end before start, start of 0 and end past max vendor ID
+        final byte[] endBeforeStart = rangeConsent();
+        new Bits(endBeforeStart).setInt(END_VENDOR_ID_OFFSET, VENDOR_ID_SIZE, 9);
+        final byte[] zeroStart = rangeConsent();
+        new Bits(zeroStart).setInt(RANGE_ENTRY_OFFSET + 1, VENDOR_ID_SIZE, 0);
+        final byte[] pastMax = rangeConsent();
+        new Bits(pastMax).setInt(END_VENDOR_ID_OFFSET, VENDOR_ID_SIZE, 101);
+
+        // When: they are validated
+        // Then: problems are reported
+        assertThat(VendorConsentValidator.validate(endBeforeStart), is(ConsentStatus.INVALID_RANGE_ENTRY));
+        assertThat(VendorConsentValidator.validate(zeroStart), is(ConsentStatus.INVALID_RANGE_ENTRY));
+        assertThat(VendorConsentValidator.validate(pastMax), is(ConsentStatus.VENDOR_ID_OUT_OF_RANGE));
+    }
+}
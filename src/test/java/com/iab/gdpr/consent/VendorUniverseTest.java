@@ -0,0 +1,72 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VendorUniverseTest {
+
+    private static VendorConsentBuilder builder() {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070400))
+                .withConsentLanguage("EN")
+                .withVendorListVersion(150)
+                .withMaxVendorId(400);
+    }
+
+    @Test
+    public void testUniverse() {
+        // When: universe is created from unsorted vendor IDs with duplicates
+        final VendorUniverse universe = VendorUniverse.of(300, 5, 64, 5, 1);
+
+        // Then: vendor IDs are sorted and distinct
+        assertThat(universe.size(), is(4));
+        assertThat(universe.getVendorIds(), is(new int[] { 1, 5, 64, 300 }));
+        assertThat(universe.getVendorBitmap(), is(IdBitmap.of(300, 1, 5, 64, 300)));
+    }
+
+    @Test
+    public void testAllowedVendorsOfEveryEncodingAndStrategy() {
+        // Given: universe with vendors inside and outside of the consents' max vendor ID
+        final VendorUniverse universe = VendorUniverse.of(1, 5, 6, 64, 120, 121, 350, 401, 500);
+        final byte[] bitField = builder()
+                .withBitField(new HashSet<>(Arrays.asList(5, 64, 100, 121, 350)))
+                .build().toByteArray();
+        // Unsorted and overlapping range entries with default consent
+        final byte[] range = builder()
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withDefaultConsent(true)
+                .withRangeEntries(Arrays.asList(new StartEndRangeEntry(100, 130), new SingleRangeEntry(6),
+                        new StartEndRangeEntry(120, 125), new SingleRangeEntry(1)))
+                .build().toByteArray();
+
+        for (DecodingStrategy strategy : DecodingStrategy.values()) {
+            // When: universe is applied to the decoded consents
+            final VendorConsent bitFieldConsent = VendorConsentDecoder.fromByteArray(bitField, strategy);
+            final VendorConsent rangeConsent = VendorConsentDecoder.fromByteArray(range, strategy);
+
+            // Then: only allowed vendors of the universe are returned
+            assertThat(universe.getAllowedVendorIds(bitFieldConsent), is(new int[] { 5, 64, 121, 350 }));
+            assertThat(universe.getAllowedVendorIds(rangeConsent), is(new int[] { 5, 64, 350 }));
+            assertThat(universe.getAllowedVendorBitmap(rangeConsent), is(IdBitmap.of(500, 5, 64, 350)));
+            final boolean[] results = new boolean[universe.size()];
+            universe.isAllowedBy(bitFieldConsent, results);
+            assertThat(results, is(new boolean[] { false, true, false, true, false, true, true, false, false }));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidVendorId() {
+        VendorUniverse.of(0, 1);
+    }
+}
@@ -0,0 +1,59 @@
+package com.iab.gdpr.consent;
+
+import com.iab.gdpr.BitSource;
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import org.junit.Test;
+
+import java.util.Base64;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class WebSafeBase64BitsTest {
+
+    @Test
+    public void testReadsSameBitsAsDecodedBytes() {
+        // Given: random bytes and their websafe Base64 encoding
+        final Random random = new Random(5);
+        final byte[] bytes = new byte[40];
+        random.nextBytes(bytes);
+        final Bits expected = new Bits(bytes);
+
+        // When: bits are read straight from the Base64 characters
+        final BitSource bits = new WebSafeBase64Bits(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+
+        // Then: every interval reads the same as from decoded bytes
+        assertThat(bits.length(), is(bytes.length));
+        assertThat(bits.toByteArray(), is(bytes));
+        for (int start = 0; start < 80; start++) {
+            assertThat(bits.getBit(start), is(expected.getBit(start)));
+            for (int size = 1; size <= Long.SIZE; size++) {
+                assertThat(bits.getLong(start, size), is(expected.getLong(start, size)));
+            }
+        }
+    }
+
+    @Test(expected = VendorConsentParseException.class)
+    public void testReadPastEnd() {
+        // Given: 3 bytes encoded as 4 characters
+        final BitSource bits = new WebSafeBase64Bits("AAAA");
+
+        // When: bit past the third byte is read
+        bits.getInt(20, 8);
+
+        // Then: exception is raised
+    }
+
+    @Test(expected = VendorConsentParseException.class)
+    public void testIllegalCharacter() {
+        // Given: string with illegal character
+        final BitSource bits = new WebSafeBase64Bits("AA*A");
+
+        // When: bits covering the illegal character are read
+        bits.getInt(12, 6);
+
+        // Then: exception is raised
+    }
+}
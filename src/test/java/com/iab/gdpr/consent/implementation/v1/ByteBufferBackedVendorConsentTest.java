@@ -1,5 +1,6 @@
 package com.iab.gdpr.consent.implementation.v1;
 
+import com.iab.gdpr.consent.ConsentFingerprint;
 import com.iab.gdpr.consent.VendorConsent;
 import com.iab.gdpr.consent.VendorConsentDecoder;
 import com.iab.gdpr.exception.VendorConsentParseException;
@@ -174,6 +175,7 @@ public class ByteBufferBackedVendorConsentTest {
         assertThat(vendorConsent.getAllowedPurposeIds(),is(new HashSet<>(Arrays.asList(1,2,3,4,5,15,24))));
         assertThat(vendorConsent.getAllowedPurposes(),is(new HashSet<>(Arrays.asList(STORAGE_AND_ACCESS,PERSONALIZATION,AD_SELECTION,CONTENT_DELIVERY,MEASUREMENT,UNDEFINED))));
         assertThat(vendorConsent.getAllowedPurposesBits(),is(16253441));
+        assertThat(vendorConsent.getAllowedPurposeBitmap().toArray(),is(new int[] {1,2,3,4,5,15,24}));
         assertTrue(vendorConsent.isPurposeAllowed(1));
         assertTrue(vendorConsent.isPurposeAllowed(STORAGE_AND_ACCESS));
         assertTrue(vendorConsent.isPurposeAllowed(2));
@@ -235,6 +237,12 @@ public class ByteBufferBackedVendorConsentTest {
         assertTrue(vendorConsent.isVendorAllowed(25));
         assertTrue(vendorConsent.isVendorAllowed(30));
         assertThat(vendorConsent.getAllowedVendorIds(), is(new HashSet<>(Arrays.asList(1, 25, 30))));
+        assertThat(vendorConsent.getAllowedVendorBitmap().toArray(), is(new int[] { 1, 25, 30 }));
+        final Set<Integer> visitedVendorIds = new HashSet<>();
+        vendorConsent.forEachAllowedVendorId(visitedVendorIds::add);
+        assertThat(visitedVendorIds, is(new HashSet<>(Arrays.asList(1, 25, 30))));
+        assertThat(vendorConsent.isVendorsAllowed(new int[] { 30, 0, 1, 2, 33, 25 }),
+                is(new boolean[] { true, false, true, false, false, true }));
 
         assertFalse(vendorConsent.isVendorAllowed(2));
         assertFalse(vendorConsent.isVendorAllowed(3));
@@ -345,6 +353,14 @@ public class ByteBufferBackedVendorConsentTest {
                 .collect(Collectors.toSet());
         assertThat(vendorConsent.getAllowedVendorIds(), is(expectedVendorIds));
 
+        final Set<Integer> visitedVendorIds = new HashSet<>();
+        vendorConsent.forEachAllowedVendorId(visitedVendorIds::add);
+        assertThat(visitedVendorIds, is(expectedVendorIds));
+        assertThat(vendorConsent.getAllowedVendorBitmap().cardinality(), is(expectedVendorIds.size()));
+        assertThat(vendorConsent.isVendorsAllowed(new int[] { 0, 1, 2, 25, 30, 32, 33 }),
+                is(new boolean[] { false, false, true, false, false, true, false }));
+        assertThat(vendorConsent.isVendorsAllowed(new int[] { 32, 30, 2, 1 }), is(new boolean[] { true, false, true, false }));
+
         // Vendors outside range [1, MaxVendorId] are not allowed
         assertFalse(vendorConsent.isVendorAllowed(-99));
         assertFalse(vendorConsent.isVendorAllowed(-1));
@@ -704,4 +720,21 @@ public class ByteBufferBackedVendorConsentTest {
         fail("VendorConsentParseException expected");
     }
 
+    @Test
+    public void testFingerprintEquality() {
+        // Given: two decodes of the same consent string and one of a different consent string
+        final String consentString = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+        final VendorConsent first = VendorConsentDecoder.fromBase64String(consentString);
+        final VendorConsent second = VendorConsentDecoder.fromBase64String(consentString);
+        final VendorConsent other = VendorConsentDecoder.fromBase64String("BOEFEAyOEFEAyAHABDENAI4AAAB9vABAASA");
+
+        // Then: equal consents share fingerprint and hash code, different consents are not equal
+        assertThat(first.getFingerprint(), is(second.getFingerprint()));
+        assertThat(first.getFingerprint(), is(ConsentFingerprint.of(first.toByteArray())));
+        assertThat(first.hashCode(), is(second.hashCode()));
+        assertEquals(first, second);
+        assertNotEquals(first.getFingerprint(), other.getFingerprint());
+        assertNotEquals(first, other);
+    }
+
 }
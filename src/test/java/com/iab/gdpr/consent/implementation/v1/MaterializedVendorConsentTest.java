@@ -0,0 +1,159 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.range.RangeEntry;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class MaterializedVendorConsentTest {
+
+    private static VendorConsentBuilder builder(int maxVendorId) {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070500))
+                .withCmpID(15)
+                .withCmpVersion(5)
+                .withConsentScreenID(18)
+                .withConsentLanguage("EN")
+                .withVendorListVersion(150)
+                .withAllowedPurposeIds(new HashSet<>(Arrays.asList(1, 3, 5)))
+                .withMaxVendorId(maxVendorId);
+    }
+
+    private static void assertSameConsent(VendorConsent actual, VendorConsent expected) {
+        assertThat(actual.getVersion(), is(expected.getVersion()));
+        assertThat(actual.getConsentRecordCreated(), is(expected.getConsentRecordCreated()));
+        assertThat(actual.getConsentRecordLastUpdated(), is(expected.getConsentRecordLastUpdated()));
+        assertThat(actual.getCmpId(), is(expected.getCmpId()));
+        assertThat(actual.getCmpVersion(), is(expected.getCmpVersion()));
+        assertThat(actual.getConsentScreen(), is(expected.getConsentScreen()));
+        assertThat(actual.getConsentLanguage(), is(expected.getConsentLanguage()));
+        assertThat(actual.getVendorListVersion(), is(expected.getVendorListVersion()));
+        assertThat(actual.getAllowedPurposeIds(), is(expected.getAllowedPurposeIds()));
+        assertThat(actual.getAllowedPurposesBits(), is(expected.getAllowedPurposesBits()));
+        assertThat(actual.getMaxVendorId(), is(expected.getMaxVendorId()));
+        for (int purposeId = 0; purposeId <= 25; purposeId++) {
+            assertThat(actual.isPurposeAllowed(purposeId), is(expected.isPurposeAllowed(purposeId)));
+        }
+        for (int vendorId = -1; vendorId <= expected.getMaxVendorId() + 1; vendorId++) {
+            assertThat(actual.isVendorAllowed(vendorId), is(expected.isVendorAllowed(vendorId)));
+        }
+        assertThat(actual.getAllowedVendorIds(), is(expected.getAllowedVendorIds()));
+        assertThat(actual, is(expected));
+    }
+
+    @Test
+    public void testBitFieldEncoding() {
+        // Given: bit field encoded consents with random vendors
+        final Random random = new Random(7);
+        for (int maxVendorId : new int[] { 1, 63, 64, 65, 300 }) {
+            final Set<Integer> allowedVendorIds = new HashSet<>();
+            for (int vendorId = 1; vendorId <= maxVendorId; vendorId++) {
+                if (random.nextBoolean()) allowedVendorIds.add(vendorId);
+            }
+            final VendorConsent lazyConsent = builder(maxVendorId).withBitField(allowedVendorIds).build();
+
+            // When: materialized consent is constructed
+            final VendorConsent vendorConsent = new MaterializedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+            // Then: all fields agree with lazy implementation
+            assertSameConsent(vendorConsent, lazyConsent);
+        }
+    }
+
+    @Test
+    public void testRangeEncoding() {
+        // Given: range encoded consents with random entries and both default consent values
+        final Random random = new Random(11);
+        for (boolean defaultConsent : new boolean[] { false, true }) {
+            final int maxVendorId = 500;
+            final List<RangeEntry> rangeEntries = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                final int start = 1 + random.nextInt(maxVendorId - 1);
+                if (random.nextBoolean())
+                    rangeEntries.add(new SingleRangeEntry(start));
+                else
+                    rangeEntries.add(new StartEndRangeEntry(start, start + 1 + random.nextInt(maxVendorId - start)));
+            }
+            final VendorConsent lazyConsent = builder(maxVendorId)
+                    .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                    .withDefaultConsent(defaultConsent)
+                    .withRangeEntries(rangeEntries)
+                    .build();
+
+            // When: materialized consent is constructed
+            final VendorConsent vendorConsent = new MaterializedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+            // Then: all fields agree with lazy implementation
+            assertSameConsent(vendorConsent, lazyConsent);
+        }
+    }
+
+    @Test
+    public void testConsentBytesAreNotShared() {
+        // Given: bit field encoded consent
+        final byte[] bytes = builder(10).withBitField(new HashSet<>(Arrays.asList(2, 4))).build().toByteArray();
+
+        // When: materialized consent is constructed and source bytes are modified
+        final VendorConsent vendorConsent = new MaterializedVendorConsent(new Bits(bytes));
+        final byte[] copy = bytes.clone();
+        Arrays.fill(bytes, (byte) 0);
+
+        // Then: consent is not affected and returned bytes are a copy
+        assertThat(vendorConsent.toByteArray(), is(copy));
+        assertThat(vendorConsent.toByteArray(), not(sameInstance(vendorConsent.toByteArray())));
+        assertThat(vendorConsent.getCmpId(), is(15));
+    }
+
+    @Test
+    public void testLimitedBitsCopied() {
+        // Given: consent bytes in a larger reused buffer
+        final byte[] bytes = builder(10).withBitField(new HashSet<>(Arrays.asList(2, 4))).build().toByteArray();
+        final byte[] buffer = Arrays.copyOf(bytes, bytes.length + 16);
+
+        // When: materialized consent is constructed from the limited bits and the buffer is reused
+        final VendorConsent vendorConsent = new MaterializedVendorConsent(new Bits(buffer).limit(bytes.length));
+        Arrays.fill(buffer, (byte) 0);
+
+        // Then: consent holds exactly the consent bytes
+        assertThat(vendorConsent.toByteArray(), is(bytes));
+        assertThat(vendorConsent.getAllowedVendorIds(), is(new HashSet<>(Arrays.asList(2, 4))));
+    }
+
+    @Test
+    public void testReadOnlyViewAndFingerprint() {
+        // Given: materialized consent
+        final VendorConsent lazyConsent = builder(100)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withRangeEntries(Arrays.asList(new SingleRangeEntry(5), new StartEndRangeEntry(10, 20)))
+                .build();
+        final MaterializedVendorConsent consent = new MaterializedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+        // When: bytes are read through a view
+        final ByteBuffer view = consent.asReadOnlyByteBuffer();
+        final byte[] viewBytes = new byte[view.remaining()];
+        view.get(viewBytes);
+
+        // Then: view is read-only, holds the consent bytes and fingerprint matches
+        assertThat(consent.asReadOnlyByteBuffer().isReadOnly(), is(true));
+        assertThat(viewBytes, is(lazyConsent.toByteArray()));
+        assertThat(consent.getFingerprint(), is(lazyConsent.getFingerprint()));
+    }
+}
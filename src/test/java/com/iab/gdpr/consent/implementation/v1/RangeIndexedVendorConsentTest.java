@@ -0,0 +1,148 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import com.iab.gdpr.util.Utils;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class RangeIndexedVendorConsentTest {
+
+    private static VendorConsent rangeConsent(boolean defaultConsent) {
+        // Range entries are unsorted and overlapping: 40-50, 3, 10-20, 15-25, 26
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.now())
+                .withConsentRecordLastUpdatedOn(Instant.now())
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(60)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withDefaultConsent(defaultConsent)
+                .withRangeEntries(Arrays.asList(
+                        new StartEndRangeEntry(40, 50),
+                        new SingleRangeEntry(3),
+                        new StartEndRangeEntry(10, 20),
+                        new StartEndRangeEntry(15, 25),
+                        new SingleRangeEntry(26)))
+                .build();
+    }
+
+    @Test
+    public void testRangeEncodingDefaultFalse() {
+        // Given: range encoded consent with default consent false
+        final VendorConsent lazyConsent = rangeConsent(false);
+
+        // When: range indexed consent is constructed
+        final RangeIndexedVendorConsent vendorConsent = new RangeIndexedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+        // Then: vendor checks agree with lazy implementation
+        for (int vendorId = -1; vendorId <= 62; vendorId++) {
+            assertThat(vendorConsent.isVendorAllowed(vendorId), is(lazyConsent.isVendorAllowed(vendorId)));
+        }
+        final Set<Integer> expectedVendorIds = IntStream
+                .concat(IntStream.of(3), IntStream.concat(IntStream.rangeClosed(10, 26), IntStream.rangeClosed(40, 50)))
+                .boxed()
+                .collect(Collectors.toSet());
+        assertThat(vendorConsent.getAllowedVendorIds(), is(expectedVendorIds));
+    }
+
+    @Test
+    public void testRangeEncodingDefaultTrue() {
+        // Given: range encoded consent with default consent true
+        final VendorConsent lazyConsent = rangeConsent(true);
+
+        // When: range indexed consent is constructed
+        final RangeIndexedVendorConsent vendorConsent = new RangeIndexedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+        // Then: vendor checks agree with lazy implementation
+        for (int vendorId = -1; vendorId <= 62; vendorId++) {
+            assertThat(vendorConsent.isVendorAllowed(vendorId), is(lazyConsent.isVendorAllowed(vendorId)));
+        }
+        assertThat(vendorConsent.getAllowedVendorIds(), is(lazyConsent.getAllowedVendorIds()));
+        assertThat(vendorConsent, is(lazyConsent));
+    }
+
+    @Test
+    public void testBatchVendorCheck() {
+        // Given: range encoded consents with both default consent values and sorted and unsorted vendor IDs
+        final int[] sortedVendorIds = IntStream.rangeClosed(-1, 62).toArray();
+        final int[] unsortedVendorIds = { 50, 3, 61, 0, 26, 10, 40, 27, 3, -1, 25 };
+        for (boolean defaultConsent : new boolean[] { false, true }) {
+            final VendorConsent lazyConsent = rangeConsent(defaultConsent);
+            final RangeIndexedVendorConsent vendorConsent = new RangeIndexedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+            for (int[] vendorIds : new int[][] { sortedVendorIds, unsortedVendorIds }) {
+                // When: vendors are checked in batch
+                final boolean[] indexedResults = vendorConsent.isVendorsAllowed(vendorIds);
+                final boolean[] lazyResults = lazyConsent.isVendorsAllowed(vendorIds);
+
+                // Then: results agree with single vendor checks
+                for (int i = 0; i < vendorIds.length; i++) {
+                    assertThat(indexedResults[i], is(lazyConsent.isVendorAllowed(vendorIds[i])));
+                    assertThat(lazyResults[i], is(lazyConsent.isVendorAllowed(vendorIds[i])));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBitFieldEncoding() {
+        // Given: bit field encoded consent
+        final VendorConsent lazyConsent = new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.now())
+                .withConsentRecordLastUpdatedOn(Instant.now())
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(10)
+                .withBitField(Collections.singleton(7))
+                .build();
+
+        // When: range indexed consent is constructed
+        final RangeIndexedVendorConsent vendorConsent = new RangeIndexedVendorConsent(new Bits(lazyConsent.toByteArray()));
+
+        // Then: bit field is used for vendor checks
+        assertTrue(vendorConsent.isVendorAllowed(7));
+        assertFalse(vendorConsent.isVendorAllowed(8));
+    }
+
+    @Test(expected = VendorConsentParseException.class)
+    public void testInvalidVendorIdFailsOnConstruction() {
+        // Given: invalid vendor ID in range
+        final String binaryString = "000011" + // Version
+                "001110001110110011010000101000000000" +  // Created
+                "001110001110110011010000101000000000" +  // Updated
+                "000000001111"                         +  // CMP ID
+                "000000000101"                         +  // CMP version
+                "010010"                               +  // Content screen ID
+                "000100001101"                         +  // Language code
+                "000010010110"                         +  // Vendor list version
+                "111110000000001000000001"             +  // Allowed purposes bitmap
+                "0000000000100000"                     +  // Max vendor ID
+                "1"                                    +  // Range encoding
+                "1"                                    +  // Default 1=Consent
+                "000000000001"                         +  // Number of entries = 1
+                "0"                                    +  // First entry single = 0
+                "0000000000101000"                        // First entry value = 40 - INVALID
+                ;
+
+        // When: object is constructed
+        new RangeIndexedVendorConsent(Utils.fromBinaryString(binaryString));
+
+        // Then: exception is raised
+    }
+}
@@ -0,0 +1,114 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.consent.ConsentStatus;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import com.iab.gdpr.consent.VendorConsentEncoder;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ReusableVendorConsentTest {
+
+    private static final String BIT_FIELD_CONSENT = "BOOlLqOOOlLqTABABAENAk-AAAAXx7_______9______9uz_Gv_r_f__3nW8_39P3g_7_O3_7m_-zzV48_lrQV1yPAUCgA";
+    private static final String RANGE_CONSENT = VendorConsentEncoder.toBase64String(new VendorConsentBuilder()
+            .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+            .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070500))
+            .withCmpID(15)
+            .withConsentLanguage("EN")
+            .withVendorListVersion(150)
+            .withMaxVendorId(600)
+            .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+            .withDefaultConsent(true)
+            .withRangeEntries(Arrays.asList(new SingleRangeEntry(5), new StartEndRangeEntry(100, 400)))
+            .build());
+
+    @Test
+    public void testResetRebindsInPlace() {
+        // Given: reusable consent
+        final ReusableVendorConsent reusableConsent = new ReusableVendorConsent();
+
+        for (String consentString : new String[] { BIT_FIELD_CONSENT, RANGE_CONSENT, BIT_FIELD_CONSENT }) {
+            // When: consent string is decoded into it
+            final VendorConsent vendorConsent = reusableConsent.reset(consentString);
+
+            // Then: same instance is returned and it agrees with decoder
+            final VendorConsent expected = VendorConsentDecoder.fromBase64String(consentString);
+            assertThat(vendorConsent, sameInstance(reusableConsent));
+            assertThat(vendorConsent.getCmpId(), is(expected.getCmpId()));
+            assertThat(vendorConsent.getConsentRecordLastUpdated(), is(expected.getConsentRecordLastUpdated()));
+            assertThat(vendorConsent.getAllowedPurposeIds(), is(expected.getAllowedPurposeIds()));
+            assertThat(vendorConsent.getMaxVendorId(), is(expected.getMaxVendorId()));
+            assertThat(vendorConsent.getAllowedVendorIds(), is(expected.getAllowedVendorIds()));
+            assertThat(vendorConsent.toByteArray(), is(expected.toByteArray()));
+            assertThat(vendorConsent, is(expected));
+        }
+    }
+
+    @Test
+    public void testResetClearsFingerprint() {
+        // Given: reusable consent holding bit field consent string
+        final ReusableVendorConsent reusableConsent = new ReusableVendorConsent().reset(BIT_FIELD_CONSENT);
+        assertThat(reusableConsent.getFingerprint(), is(VendorConsentDecoder.fromBase64String(BIT_FIELD_CONSENT).getFingerprint()));
+
+        // When: range consent string is decoded into it
+        reusableConsent.reset(RANGE_CONSENT);
+
+        // Then: fingerprint and hash code are those of the range consent string
+        final VendorConsent expected = VendorConsentDecoder.fromBase64String(RANGE_CONSENT);
+        assertThat(reusableConsent.getFingerprint(), is(expected.getFingerprint()));
+        assertThat(reusableConsent.hashCode(), is(expected.hashCode()));
+        assertThat(reusableConsent.equals(expected), is(true));
+        assertThat(reusableConsent.equals(VendorConsentDecoder.fromBase64String(BIT_FIELD_CONSENT)), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyConsentString() {
+        // Given: empty consent string
+        final String consentString = "";
+
+        // When: reusable consent is reset
+        new ReusableVendorConsent().reset(consentString);
+
+        // Then: IllegalArgumentException exception is thrown
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownVersion() {
+        // Given: consent string with version 10
+        final String consentString = "KAAAAAAA";
+
+        // When: reusable consent is reset
+        new ReusableVendorConsent().reset(consentString);
+
+        // Then: IllegalStateException exception is thrown
+    }
+
+    @Test
+    public void testTryResetReportsStatus() {
+        // Given: reusable consent
+        final ReusableVendorConsent reusableConsent = new ReusableVendorConsent();
+
+        // When: valid and invalid consent strings are decoded without exceptions
+        // Then: status is returned and the consent is only held when valid
+        assertThat(reusableConsent.tryReset(RANGE_CONSENT), is(ConsentStatus.VALID));
+        assertThat(reusableConsent.isVendorAllowed(5), is(false));
+        assertThat(reusableConsent.isVendorAllowed(6), is(true));
+        assertThat(reusableConsent.tryReset(""), is(ConsentStatus.EMPTY));
+        assertThat(reusableConsent.tryReset("KAAAAAAA"), is(ConsentStatus.UNSUPPORTED_VERSION));
+        assertThat(reusableConsent.tryReset("BOOl+qOO"), is(ConsentStatus.INVALID_BASE64));
+        assertThat(reusableConsent.tryReset(RANGE_CONSENT.substring(0, RANGE_CONSENT.length() - 4)), is(ConsentStatus.TRUNCATED));
+        assertThat(reusableConsent.tryReset(new String(new char[ReusableVendorConsent.MAX_CONSENT_BYTES * 2]).replace('\0', 'A')),
+                is(ConsentStatus.TOO_LONG));
+        assertThat(reusableConsent.toByteArray().length, is(0));
+    }
+}
@@ -1,6 +1,9 @@
 package com.iab.gdpr.consent.implementation.v1;
 
+import com.iab.gdpr.Bits;
+import com.iab.gdpr.GdprConstants;
 import com.iab.gdpr.Purpose;
+import com.iab.gdpr.consent.IdBitmap;
 import com.iab.gdpr.consent.range.RangeEntry;
 import com.iab.gdpr.consent.range.SingleRangeEntry;
 import com.iab.gdpr.consent.range.StartEndRangeEntry;
@@ -15,7 +18,9 @@ import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import static com.iab.gdpr.Purpose.*;
 import static org.hamcrest.Matchers.is;
@@ -227,4 +232,196 @@ public class VendorConsentBuilderTest {
         assertFalse(vendorConsent.isVendorAllowed(50));
         assertFalse(vendorConsent.isVendorAllowed(240));
     }
-}
\ No newline at end of file
+
+    private VendorConsentBuilder headerBuilder(int maxVendorId) {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(now)
+                .withConsentRecordLastUpdatedOn(now)
+                .withConsentLanguage("EN")
+                .withVendorListVersion(10)
+                .withMaxVendorId(maxVendorId);
+    }
+
+    private int encodingType(VendorConsent vendorConsent) {
+        return ((ByteBufferBackedVendorConsent) vendorConsent).encodingType();
+    }
+
+    private boolean defaultConsent(VendorConsent vendorConsent) {
+        return new Bits(vendorConsent.toByteArray()).getBit(GdprConstants.DEFAULT_CONSENT_OFFSET);
+    }
+
+    @Test
+    public void testAllowedVendorsPicksShortestEncoding() {
+        final int maxVendorId = 600;
+        final int[] everyOther = IntStream.rangeClosed(1, maxVendorId).filter(id -> id % 2 == 0).toArray();
+        final int[] allButTwo = IntStream.rangeClosed(1, maxVendorId).filter(id -> id != 7 && id != 300).toArray();
+
+        // Given: sparse, nearly full and alternating vendor sets
+        final IdBitmap sparse = IdBitmap.of(maxVendorId, 3, 100, 101, 102, 599);
+        final IdBitmap nearlyFull = IdBitmap.of(maxVendorId, allButTwo);
+        final IdBitmap alternating = IdBitmap.of(maxVendorId, everyOther);
+
+        // When: consents are built from the vendor sets
+        final VendorConsent sparseConsent = headerBuilder(maxVendorId).withAllowedVendors(sparse).build();
+        final VendorConsent nearlyFullConsent = headerBuilder(maxVendorId).withAllowedVendors(nearlyFull).build();
+        final VendorConsent alternatingConsent = headerBuilder(maxVendorId).withAllowedVendors(alternating).build();
+
+        // Then: sparse set uses ranges without default consent, nearly full set ranges with default consent and
+        // alternating set the bit field, and all round trip
+        assertThat(encodingType(sparseConsent), is(GdprConstants.VENDOR_ENCODING_RANGE));
+        assertFalse(defaultConsent(sparseConsent));
+        assertThat(sparseConsent.toByteArray().length, is((GdprConstants.RANGE_ENTRY_OFFSET + 2 * 17 + 33 + 7) / 8));
+        assertThat(encodingType(nearlyFullConsent), is(GdprConstants.VENDOR_ENCODING_RANGE));
+        assertTrue(defaultConsent(nearlyFullConsent));
+        assertThat(encodingType(alternatingConsent), is(GdprConstants.VENDOR_ENCODING_BIT_FIELD));
+        assertThat(alternatingConsent.toByteArray().length, is((GdprConstants.VENDOR_BITFIELD_OFFSET + maxVendorId + 7) / 8));
+
+        assertThat(new ByteBufferBackedVendorConsent(new Bits(sparseConsent.toByteArray())).getAllowedVendorBitmap(), is(sparse));
+        assertThat(new ByteBufferBackedVendorConsent(new Bits(nearlyFullConsent.toByteArray())).getAllowedVendorBitmap(), is(nearlyFull));
+        assertThat(new ByteBufferBackedVendorConsent(new Bits(alternatingConsent.toByteArray())).getAllowedVendorBitmap(), is(alternating));
+    }
+
+    @Test
+    public void testAllowedVendorsNoLongerThanExplicitEncodings() {
+        final Random random = new Random(42);
+        for (int n = 0; n < 200; n++) {
+            // Given: random vendor set with random density and run lengths
+            final int maxVendorId = 1 + random.nextInt(700);
+            final int runs = random.nextInt(40);
+            final Set<Integer> vendorIds = new HashSet<>();
+            for (int r = 0; r < runs; r++) {
+                final int start = 1 + random.nextInt(maxVendorId);
+                final int length = random.nextInt(random.nextBoolean() ? 3 : 100);
+                for (int id = start; id < start + length && id <= maxVendorId; id++) vendorIds.add(id);
+            }
+            final IdBitmap allowedVendors = IdBitmap.of(maxVendorId, vendorIds.stream().mapToInt(Integer::intValue).toArray());
+
+            // When: consent is built with automatic encoding and with bit field encoding
+            final byte[] automatic = headerBuilder(maxVendorId).withAllowedVendors(allowedVendors).build().toByteArray();
+            final byte[] bitField = headerBuilder(maxVendorId).withBitField(vendorIds).build().toByteArray();
+
+            // Then: automatic encoding decodes to the same vendors and is never longer
+            assertThat(new ByteBufferBackedVendorConsent(new Bits(automatic)).getAllowedVendorBitmap(), is(allowedVendors));
+            assertTrue(automatic.length <= bitField.length);
+        }
+    }
+
+    @Test
+    public void testRangeVendorIdsMatchRangeEntries() {
+        // Given: vendor IDs out of order and with duplicates, and the range entries covering them
+        final int[] rangeVendorIds = {30, 5, 6, 7, 100, 6, 8, 101, 50};
+        final List<RangeEntry> rangeEntries = Arrays.asList(
+                new StartEndRangeEntry(5, 8),
+                new SingleRangeEntry(30),
+                new SingleRangeEntry(50),
+                new StartEndRangeEntry(100, 101)
+        );
+
+        // When: consent is built from vendor IDs and from range entries, with either default consent
+        for (boolean defaultConsent : new boolean[]{false, true}) {
+            final VendorConsent fromVendorIds = headerBuilder(150)
+                    .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                    .withDefaultConsent(defaultConsent)
+                    .withRangeVendorIds(rangeVendorIds)
+                    .build();
+            final VendorConsent fromRangeEntries = headerBuilder(150)
+                    .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                    .withDefaultConsent(defaultConsent)
+                    .withRangeEntries(rangeEntries)
+                    .build();
+
+            // Then: both give the same consent string
+            assertThat(fromVendorIds.toByteArray(), is(fromRangeEntries.toByteArray()));
+            assertThat(fromVendorIds.isVendorAllowed(7), is(!defaultConsent));
+            assertThat(fromVendorIds.isVendorAllowed(9), is(defaultConsent));
+        }
+    }
+
+    @Test
+    public void testEmptyRangeVendorIds() {
+        // Given: no vendor IDs
+        // When: consent is built with default consent
+        final VendorConsent vendorConsent = headerBuilder(10)
+                .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                .withDefaultConsent(true)
+                .withRangeVendorIds()
+                .build();
+
+        // Then: all vendors are allowed and there are no range entries
+        assertThat(vendorConsent.getAllowedVendorIds().size(), is(10));
+        assertThat(vendorConsent.toByteArray().length, is((GdprConstants.RANGE_ENTRY_OFFSET + 7) / 8));
+    }
+
+    @Test
+    public void testRangeVendorIdsCopied() {
+        // Given: builder given sorted vendor IDs
+        final int[] rangeVendorIds = { 1, 2, 3 };
+        final VendorConsentBuilder builder = headerBuilder(10)
+                .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                .withRangeVendorIds(rangeVendorIds);
+
+        // When: caller changes the array afterwards
+        rangeVendorIds[1] = 20;
+
+        // Then: consent is built from the original vendor IDs
+        assertThat(builder.build().getAllowedVendorIds(), is(new HashSet<>(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test(expected = VendorConsentCreateException.class)
+    public void testInvalidRangeVendorIds() {
+        // Given: vendor ID above max vendor ID
+        // When: consent is built
+        headerBuilder(10)
+                .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                .withRangeVendorIds(3, 11)
+                .build();
+
+        // Then: exception is thrown
+    }
+
+    @Test(expected = VendorConsentCreateException.class)
+    public void testTooManyRangeVendorIds() {
+        // Given: more separate vendor IDs than a range section can hold
+        final int[] rangeVendorIds = IntStream.rangeClosed(1, 4096).map(i -> 2 * i).toArray();
+
+        // When: consent is built
+        headerBuilder(8192)
+                .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                .withRangeVendorIds(rangeVendorIds)
+                .build();
+
+        // Then: exception is thrown
+    }
+
+    @Test
+    public void testRangeEntryImplementingOnlyBitsAppend() {
+        // Given: range entry that only implements appending to bits at an offset
+        final RangeEntry rangeEntry = new RangeEntry() {
+            @Override
+            public int size() {
+                return 1 + GdprConstants.VENDOR_ID_SIZE;
+            }
+
+            @Override
+            public int appendTo(Bits buffer, int currentOffset) {
+                buffer.unsetBit(currentOffset);
+                buffer.setInt(currentOffset + 1, GdprConstants.VENDOR_ID_SIZE, 7);
+                return currentOffset + size();
+            }
+
+            @Override
+            public boolean valid(int maxVendorId) {
+                return maxVendorId >= 7;
+            }
+        };
+
+        // When: consent is built with it next to a library range entry
+        final VendorConsent vendorConsent = headerBuilder(10)
+                .withVendorEncodingType(GdprConstants.VENDOR_ENCODING_RANGE)
+                .withRangeEntries(Arrays.asList(rangeEntry, new SingleRangeEntry(9)))
+                .build();
+
+        // Then: both entries are written one after the other
+        assertThat(vendorConsent.getAllowedVendorBitmap(), is(IdBitmap.of(10, 7, 9)));
+    }
+}
@@ -0,0 +1,248 @@
+package com.iab.gdpr.consent.implementation.v1;
+
+import com.iab.gdpr.GdprConstants;
+import com.iab.gdpr.Purpose;
+import com.iab.gdpr.consent.IdBitmap;
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import com.iab.gdpr.consent.VendorConsentEncoder;
+import com.iab.gdpr.consent.range.RangeEntry;
+import com.iab.gdpr.consent.range.SingleRangeEntry;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import com.iab.gdpr.exception.VendorConsentCreateException;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_BIT_FIELD;
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VendorConsentMutatorTest {
+
+    private static final Instant CREATED = Instant.ofEpochSecond(1528070400);
+    private static final Instant UPDATED = Instant.ofEpochSecond(1528070500);
+
+    private VendorConsentBuilder headerBuilder(int maxVendorId) {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(CREATED)
+                .withConsentRecordLastUpdatedOn(UPDATED)
+                .withCmpID(15)
+                .withConsentLanguage("EN")
+                .withVendorListVersion(150)
+                .withAllowedPurposeIds(new HashSet<>(Arrays.asList(1, 2)))
+                .withMaxVendorId(maxVendorId);
+    }
+
+    private int encodingType(VendorConsent vendorConsent) {
+        return ((ByteBufferBackedVendorConsent) vendorConsent).encodingType();
+    }
+
+    @Test
+    public void testHeaderAndPurposeChanges() {
+        // Given: bit field encoded consent
+        final VendorConsent original = headerBuilder(100)
+                .withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD)
+                .withBitField(new HashSet<>(Arrays.asList(1, 50)))
+                .build();
+        final byte[] originalBytes = original.toByteArray().clone();
+        final Instant now = Instant.ofEpochSecond(1600000000);
+
+        // When: last updated, vendor list version and purposes are changed
+        final VendorConsent updated = new VendorConsentMutator(original)
+                .withConsentRecordLastUpdatedOn(now)
+                .withVendorListVersion(151)
+                .withPurposeAllowed(Purpose.STORAGE_AND_ACCESS, false)
+                .withPurposeAllowed(5, true)
+                .build();
+
+        // Then: only those values change and the original is left unchanged
+        assertThat(updated.getConsentRecordLastUpdated(), is(now));
+        assertThat(updated.getVendorListVersion(), is(151));
+        assertThat(updated.getAllowedPurposeIds(), is(new HashSet<>(Arrays.asList(2, 5))));
+        assertThat(updated.getConsentRecordCreated(), is(CREATED));
+        assertThat(updated.getCmpId(), is(15));
+        assertThat(updated.getAllowedVendorIds(), is(original.getAllowedVendorIds()));
+        assertThat(original.toByteArray(), is(originalBytes));
+    }
+
+    @Test
+    public void testBitFieldVendorsPatchedInPlace() {
+        // Given: bit field encoded consent
+        final VendorConsent original = headerBuilder(100)
+                .withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD)
+                .withBitField(new HashSet<>(Arrays.asList(1, 50)))
+                .build();
+
+        // When: vendors are allowed and disallowed
+        final VendorConsent updated = new VendorConsentMutator(original)
+                .withVendorAllowed(50, false)
+                .withVendorAllowed(100, true)
+                .build();
+
+        // Then: consent keeps its size and encoding
+        assertThat(updated.getAllowedVendorIds(), is(new HashSet<>(Arrays.asList(1, 100))));
+        assertThat(updated.toByteArray().length, is(original.toByteArray().length));
+        assertThat(encodingType(updated), is(VENDOR_ENCODING_BIT_FIELD));
+    }
+
+    @Test
+    public void testRangeEntriesSpliced() {
+        // Given: range encoded consent with entries 5 and 10-20
+        final VendorConsent original = headerBuilder(100)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withRangeEntries(Arrays.asList(new SingleRangeEntry(5), new StartEndRangeEntry(10, 20)))
+                .build();
+        final VendorConsentMutator mutator = new VendorConsentMutator(original);
+
+        // When: entries are extended, split, merged and added
+        final VendorConsent extended = mutator.withVendorAllowed(6, true).build();
+        final VendorConsent split = mutator.withVendorAllowed(15, false).build();
+        final VendorConsent merged = mutator.withVendorAllowed(7, true).withVendorAllowed(8, true)
+                .withVendorAllowed(9, true).build();
+        final VendorConsent added = mutator.withVendorAllowed(50, true).withVendorAllowed(14, false).build();
+
+        // Then: each consent holds the vendors and is as long as the range section built from the same vendors
+        assertRangeConsent(extended, 100, 5, 6, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+        assertRangeConsent(split, 100, 5, 6, 10, 11, 12, 13, 14, 16, 17, 18, 19, 20);
+        assertRangeConsent(merged, 100, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 18, 19, 20);
+        assertRangeConsent(added, 100, 5, 6, 7, 8, 9, 10, 11, 12, 13, 16, 17, 18, 19, 20, 50);
+        assertRangeConsent(original, 100, 5, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20);
+    }
+
+    private void assertRangeConsent(VendorConsent vendorConsent, int maxVendorId, int... allowedVendorIds) {
+        assertThat(encodingType(vendorConsent), is(VENDOR_ENCODING_RANGE));
+        assertThat(vendorConsent.getAllowedVendorBitmap(), is(IdBitmap.of(maxVendorId, allowedVendorIds)));
+        final VendorConsent expected = headerBuilder(maxVendorId)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withRangeVendorIds(allowedVendorIds)
+                .build();
+        assertThat(vendorConsent.toByteArray().length, is(expected.toByteArray().length));
+    }
+
+    @Test
+    public void testRandomChangesMatchExpectedVendors() {
+        final Random random = new Random(7);
+        for (int n = 0; n < 100; n++) {
+            // Given: random consent in either encoding, with overlapping range entries
+            final int maxVendorId = 1 + random.nextInt(300);
+            final boolean[] allowed = new boolean[maxVendorId + 1];
+            final VendorConsentBuilder builder = headerBuilder(maxVendorId);
+            if (random.nextBoolean()) {
+                final boolean defaultConsent = random.nextBoolean();
+                final boolean[] present = new boolean[maxVendorId + 1];
+                final List<RangeEntry> rangeEntries = new ArrayList<>();
+                for (int r = random.nextInt(10); r > 0; r--) {
+                    final int start = 1 + random.nextInt(maxVendorId);
+                    final int end = Math.min(maxVendorId, start + random.nextInt(20));
+                    rangeEntries.add(start == end ? new SingleRangeEntry(start) : new StartEndRangeEntry(start, end));
+                    for (int id = start; id <= end; id++) present[id] = true;
+                }
+                for (int id = 1; id <= maxVendorId; id++) allowed[id] = present[id] != defaultConsent;
+                builder.withVendorEncodingType(VENDOR_ENCODING_RANGE).withDefaultConsent(defaultConsent)
+                        .withRangeEntries(rangeEntries);
+            } else {
+                final Set<Integer> bitField = new HashSet<>();
+                for (int id = 1; id <= maxVendorId; id++) {
+                    allowed[id] = random.nextBoolean();
+                    if (allowed[id]) bitField.add(id);
+                }
+                builder.withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD).withBitField(bitField);
+            }
+            final VendorConsentMutator mutator = new VendorConsentMutator(builder.build());
+
+            // When: random vendors are allowed and disallowed
+            for (int c = 0; c < 50; c++) {
+                final int vendorId = 1 + random.nextInt(maxVendorId);
+                allowed[vendorId] = random.nextBoolean();
+                mutator.withVendorAllowed(vendorId, allowed[vendorId]);
+            }
+            final VendorConsent updated = mutator.build();
+
+            // Then: updated consent round trips and allows exactly the expected vendors
+            final VendorConsent decoded = VendorConsentDecoder.fromBase64String(VendorConsentEncoder.toBase64String(updated));
+            final int[] expected = IntStream.rangeClosed(1, maxVendorId).filter(id -> allowed[id]).toArray();
+            assertThat(decoded.getAllowedVendorBitmap(), is(IdBitmap.of(maxVendorId, expected)));
+            assertThat(decoded.getMaxVendorId(), is(maxVendorId));
+        }
+    }
+
+    @Test
+    public void testFullRangeSectionConvertedToBitField() {
+        // Given: range section holding the maximum number of entries
+        final int[] rangeVendorIds = IntStream.rangeClosed(1, 4095).map(i -> 3 * i).toArray();
+        final VendorConsent original = headerBuilder(12300)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withRangeVendorIds(rangeVendorIds)
+                .build();
+
+        // When: a vendor needing another range entry is allowed
+        final VendorConsent updated = new VendorConsentMutator(original).withVendorAllowed(12300, true).build();
+
+        // Then: vendor section is converted to a bit field
+        assertThat(encodingType(updated), is(VENDOR_ENCODING_BIT_FIELD));
+        assertThat(updated.toByteArray().length, is((GdprConstants.VENDOR_BITFIELD_OFFSET + 12300 + 7) / 8));
+        final int[] expected = Arrays.copyOf(rangeVendorIds, rangeVendorIds.length + 1);
+        expected[rangeVendorIds.length] = 12300;
+        assertThat(updated.getAllowedVendorBitmap(), is(IdBitmap.of(12300, expected)));
+        assertThat(updated.getVendorListVersion(), is(150));
+    }
+
+    @Test
+    public void testBuiltConsentsAreNotModified() {
+        // Given: consent built by the mutator
+        final VendorConsent original = headerBuilder(10)
+                .withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD)
+                .withBitField(new HashSet<>(Arrays.asList(1)))
+                .build();
+        final VendorConsentMutator mutator = new VendorConsentMutator(original);
+        final VendorConsent first = mutator.withVendorAllowed(2, true).build();
+
+        // When: mutator is changed again
+        final VendorConsent second = mutator.withVendorAllowed(3, true).build();
+
+        // Then: earlier consents are unchanged
+        assertThat(original.getAllowedVendorBitmap(), is(IdBitmap.of(10, 1)));
+        assertThat(first.getAllowedVendorBitmap(), is(IdBitmap.of(10, 1, 2)));
+        assertThat(second.getAllowedVendorBitmap(), is(IdBitmap.of(10, 1, 2, 3)));
+    }
+
+    @Test(expected = VendorConsentCreateException.class)
+    public void testInvalidVendorId() {
+        // Given: consent with max vendor ID 10
+        final VendorConsent original = headerBuilder(10)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withRangeVendorIds(1)
+                .build();
+
+        // When: vendor above max vendor ID is allowed
+        new VendorConsentMutator(original).withVendorAllowed(11, true);
+
+        // Then: exception is thrown
+    }
+
+    @Test(expected = VendorConsentParseException.class)
+    public void testTruncatedBitField() {
+        // Given: bit field consent cut short before its last vendor
+        final byte[] bytes = headerBuilder(100)
+                .withVendorEncodingType(VENDOR_ENCODING_BIT_FIELD)
+                .withBitField(new HashSet<>(Arrays.asList(1)))
+                .build()
+                .toByteArray();
+        final VendorConsent truncated = VendorConsentDecoder.fromByteArray(Arrays.copyOf(bytes, bytes.length - 1));
+
+        // When: mutator is created from it
+        new VendorConsentMutator(truncated);
+
+        // Then: exception is thrown
+    }
+}
@@ -0,0 +1,215 @@
+package com.iab.gdpr.consent.store;
+
+import com.iab.gdpr.consent.VendorConsent;
+import com.iab.gdpr.consent.VendorConsentDecoder;
+import com.iab.gdpr.consent.implementation.v1.VendorConsentBuilder;
+import com.iab.gdpr.consent.range.StartEndRangeEntry;
+import com.iab.gdpr.exception.VendorConsentParseException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static com.iab.gdpr.GdprConstants.PURPOSES_SIZE;
+import static com.iab.gdpr.GdprConstants.VENDOR_ENCODING_RANGE;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConsentStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static VendorConsentBuilder builder(int cmpId, int maxVendorId) {
+        return new VendorConsentBuilder()
+                .withConsentRecordCreatedOn(Instant.ofEpochSecond(1528070400))
+                .withConsentRecordLastUpdatedOn(Instant.ofEpochSecond(1528070500, 300_000_000))
+                .withCmpID(cmpId)
+                .withCmpVersion(3)
+                .withConsentScreenID(2)
+                .withConsentLanguage("FR")
+                .withVendorListVersion(150)
+                .withAllowedPurposeIds(new HashSet<>(Arrays.asList(1, cmpId % PURPOSES_SIZE + 1)))
+                .withMaxVendorId(maxVendorId);
+    }
+
+    private static List<VendorConsent> consents() {
+        final List<VendorConsent> consents = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            consents.add(builder(i, 100 + i).withBitField(new HashSet<>(Arrays.asList(1, i, 100 + i))).build());
+        }
+        consents.add(builder(7, 600)
+                .withVendorEncodingType(VENDOR_ENCODING_RANGE)
+                .withDefaultConsent(true)
+                .withRangeEntries(Collections.singletonList(new StartEndRangeEntry(64, 300)))
+                .build());
+        return consents;
+    }
+
+    private Path write(List<VendorConsent> consents) throws IOException {
+        final Path path = folder.newFile().toPath();
+        try (ConsentStoreWriter writer = new ConsentStoreWriter(path, 600)) {
+            for (VendorConsent vendorConsent : consents) {
+                writer.write(vendorConsent);
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void testRecordsMatchConsents() throws IOException {
+        // Given: store written from bit field and range encoded consents
+        final List<VendorConsent> consents = consents();
+
+        // When: store is opened
+        try (ConsentStore store = ConsentStore.open(write(consents))) {
+
+            // Then: every record holds the values of its consent
+            assertThat(store.size(), is(consents.size()));
+            assertThat(store.getMaxVendorId(), is(600));
+            for (int record = 0; record < consents.size(); record++) {
+                final VendorConsent vendorConsent = consents.get(record);
+                assertThat(store.get(ConsentColumn.VERSION, record), is((long) vendorConsent.getVersion()));
+                assertThat(store.getConsentRecordCreated(record), is(vendorConsent.getConsentRecordCreated()));
+                assertThat(store.getConsentRecordLastUpdated(record), is(vendorConsent.getConsentRecordLastUpdated()));
+                assertThat(store.get(ConsentColumn.CMP_ID, record), is((long) vendorConsent.getCmpId()));
+                assertThat(store.get(ConsentColumn.CMP_VERSION, record), is((long) vendorConsent.getCmpVersion()));
+                assertThat(store.get(ConsentColumn.CONSENT_SCREEN, record), is((long) vendorConsent.getConsentScreen()));
+                assertThat(store.get(ConsentColumn.VENDOR_LIST_VERSION, record), is((long) vendorConsent.getVendorListVersion()));
+                assertThat(store.get(ConsentColumn.PURPOSES, record), is((long) vendorConsent.getAllowedPurposesBits()));
+                assertThat(store.get(ConsentColumn.MAX_VENDOR_ID, record), is((long) vendorConsent.getMaxVendorId()));
+                for (int purposeId = 0; purposeId <= PURPOSES_SIZE + 1; purposeId++) {
+                    assertThat(store.isPurposeAllowed(record, purposeId), is(vendorConsent.isPurposeAllowed(purposeId)));
+                }
+                for (int vendorId = 0; vendorId <= 601; vendorId++) {
+                    assertThat(store.isVendorAllowed(record, vendorId), is(vendorConsent.isVendorAllowed(vendorId)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCounts() throws IOException {
+        // Given: store written from consents
+        final List<VendorConsent> consents = consents();
+
+        try (ConsentStore store = ConsentStore.open(write(consents))) {
+            // When: allowed vendors and purposes are counted
+            final long[] vendorCounts = store.countAllowedVendors();
+            final long[] purposeCounts = store.countAllowedPurposes();
+
+            // Then: counts match the consents
+            assertThat(vendorCounts.length, is(601));
+            for (int vendorId = 1; vendorId <= 600; vendorId++) {
+                final int id = vendorId;
+                final long expected = consents.stream().filter(c -> c.isVendorAllowed(id)).count();
+                assertThat(vendorCounts[vendorId], is(expected));
+                assertThat(store.countVendorAllowed(vendorId), is(expected));
+            }
+            assertThat(purposeCounts.length, is(PURPOSES_SIZE + 1));
+            for (int purposeId = 1; purposeId <= PURPOSES_SIZE; purposeId++) {
+                final int id = purposeId;
+                final long expected = consents.stream().filter(c -> c.isPurposeAllowed(id)).count();
+                assertThat(purposeCounts[purposeId], is(expected));
+                assertThat(store.countPurposeAllowed(purposeId), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyStore() throws IOException {
+        try (ConsentStore store = ConsentStore.open(write(Collections.emptyList()))) {
+            assertThat(store.size(), is(0));
+            assertThat(store.countAllowedVendors()[1], is(0L));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConsentExceedingMaxVendorId() throws IOException {
+        try (ConsentStoreWriter writer = new ConsentStoreWriter(folder.newFile().toPath(), 100)) {
+            writer.write(builder(1, 101).withBitField(Collections.singleton(101)).build());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRecordLimit() throws IOException {
+        // Given: store whose header claims as many records as the limit
+        final Path path = write(consents());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            final ByteBuffer count = ByteBuffer.allocate(Long.BYTES).order(ConsentStore.ORDER);
+            count.putLong(0, ConsentStoreWriter.RECORD_LIMIT);
+            channel.write(count, 8);
+        }
+
+        // When: store is opened
+        ConsentStore.open(path);
+
+        // Then: exception is thrown
+    }
+
+    @Test
+    public void testColumnGrowthCappedAtRecordLimit() {
+        // Given: largest column, 8 byte values of every record below the limit
+        final long maxColumnBytes = Long.BYTES * (ConsentStoreWriter.RECORD_LIMIT - 1);
+
+        // When: column buffers grow towards and past the cap
+        // Then: capacity doubles, stops at the cap and never overflows
+        assertThat((long) ConsentStoreWriter.MAX_COLUMN_BYTES, is(maxColumnBytes));
+        assertThat(ConsentStoreWriter.grownCapacity(8 * 1024), is(16 * 1024));
+        assertThat(ConsentStoreWriter.grownCapacity(ConsentStoreWriter.MAX_COLUMN_BYTES / 2 + 8), is(ConsentStoreWriter.MAX_COLUMN_BYTES));
+        assertThat(ConsentStoreWriter.grownCapacity(1 << 30), is(ConsentStoreWriter.MAX_COLUMN_BYTES));
+        assertThat(ConsentStoreWriter.grownCapacity(Integer.MAX_VALUE), is(ConsentStoreWriter.MAX_COLUMN_BYTES));
+    }
+
+    @Test
+    public void testConsentFailingToParseIsNotWritten() throws IOException {
+        // Given: consents and one cut short inside its bit field
+        final List<VendorConsent> consents = consents();
+        final byte[] bytes = consents.get(0).toByteArray();
+        final VendorConsent truncated = VendorConsentDecoder.fromByteArray(Arrays.copyOf(bytes, bytes.length - 2));
+
+        // When: truncated consent is written between the others
+        final Path path = folder.newFile().toPath();
+        try (ConsentStoreWriter writer = new ConsentStoreWriter(path, 600)) {
+            writer.write(consents.get(0));
+            try {
+                writer.write(truncated);
+                fail("Expected VendorConsentParseException");
+            } catch (VendorConsentParseException e) {
+                // expected
+            }
+            writer.write(consents.get(1));
+        }
+
+        // Then: store holds only the valid consents, with matching columns
+        try (ConsentStore store = ConsentStore.open(path)) {
+            assertThat(store.size(), is(2));
+            for (int record = 0; record < 2; record++) {
+                assertThat(store.get(ConsentColumn.CMP_ID, record), is((long) consents.get(record).getCmpId()));
+                for (int vendorId = 1; vendorId <= 600; vendorId++) {
+                    assertThat(store.isVendorAllowed(record, vendorId), is(consents.get(record).isVendorAllowed(vendorId)));
+                }
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAConsentStore() throws IOException {
+        final Path path = folder.newFile().toPath();
+        Files.write(path, new byte[64]);
+        ConsentStore.open(path);
+    }
+}